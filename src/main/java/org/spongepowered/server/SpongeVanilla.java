@@ -62,8 +62,12 @@
 import org.spongepowered.common.service.permission.SpongePermissionService;
 import org.spongepowered.common.service.sql.SqlServiceImpl;
 import org.spongepowered.common.util.SpongeHooks;
+import org.spongepowered.server.command.VanillaCommand;
+import org.spongepowered.server.config.VanillaConfig;
+import org.spongepowered.server.event.VanillaEventManager;
 import org.spongepowered.server.guice.VanillaGuiceModule;
 import org.spongepowered.server.plugin.VanillaPluginManager;
+import org.spongepowered.server.world.storage.PlayerDataWriter;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -100,6 +104,7 @@ public void preInitialize() {
             this.game.getRegistry().preRegistryInit();
             SpongeBootstrap.initializeServices();
             SpongeBootstrap.initializeCommands();
+            this.game.getCommandManager().register(this, VanillaCommand.create(), "spongevanilla", "sv");
             SpongeImpl.getRegistry().preInit();
 
             SpongeImpl.getLogger().info("Loading plugins...");
@@ -156,6 +161,9 @@ public void onServerStarted(GameStartingServerEvent event) {
     @Listener(order = Order.PRE)
     public void onServerStopped(GameStoppedServerEvent event) throws IOException {
         ((SqlServiceImpl) this.game.getServiceManager().provideUnchecked(SqlService.class)).close();
+        ((VanillaEventManager) this.game.getEventManager()).getNotifications().shutdown();
+        PlayerDataWriter.shutdown();
+        VanillaConfig.getInstance().save();
     }
 
     @Override
@@ -24,16 +24,106 @@
  */
 package org.spongepowered.server;
 
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.item.ItemStack;
+import net.minecraft.network.play.server.S02PacketChat;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.World;
 import org.spongepowered.api.data.manipulator.DataManipulator;
+import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.text.Text;
+import org.spongepowered.api.text.channel.MessageChannel;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.text.SpongeTexts;
+import org.spongepowered.server.event.NotificationDispatcher;
+import org.spongepowered.server.event.VanillaEventManager;
+import org.spongepowered.server.event.notification.WorldUnloadNotification;
+import org.spongepowered.server.interfaces.IMixinNetworkManager;
+import org.spongepowered.server.network.NetworkMetrics;
+import org.spongepowered.server.network.PacketBroadcaster;
+import org.spongepowered.server.network.VanillaChannelRegistrar;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public final class VanillaHooks {
 
     private VanillaHooks() {
     }
 
+    /**
+     * Returns whether any listener would receive an event of the given type.
+     * Hooks use this to skip constructing causes, snapshots and the event if
+     * nobody observes it.
+     *
+     * @param eventClass The event type
+     * @return True if the event type has listeners
+     */
+    public static boolean hasListeners(Class<? extends Event> eventClass) {
+        return ((VanillaEventManager) SpongeImpl.getGame().getEventManager()).hasListeners(eventClass);
+    }
+
+    public static NotificationDispatcher getNotifications() {
+        return ((VanillaEventManager) SpongeImpl.getGame().getEventManager()).getNotifications();
+    }
+
+    public static void notifyWorldUnload(World world) {
+        final NotificationDispatcher notifications = getNotifications();
+        if (notifications.hasListeners(WorldUnloadNotification.class)) {
+            notifications.post(new WorldUnloadNotification(((org.spongepowered.api.world.World) world).getUniqueId(),
+                    world.getWorldInfo().getWorldName()));
+        }
+    }
+
+    /**
+     * Sends a message to a channel. Messages to all players are encoded once
+     * per client locale instead of once per player.
+     *
+     * @param channel The channel
+     * @param message The message
+     */
+    public static void sendMessage(MessageChannel channel, Text message) {
+        if (channel != MessageChannel.TO_ALL && channel != MessageChannel.TO_PLAYERS) {
+            channel.send(message);
+            return;
+        }
+
+        final Map<Locale, List<EntityPlayerMP>> players = new HashMap<>();
+        for (Object player : MinecraftServer.getServer().getConfigurationManager().playerEntityList) {
+            players.computeIfAbsent(((Player) player).getLocale(), locale -> new ArrayList<>()).add((EntityPlayerMP) player);
+        }
+        for (Map.Entry<Locale, List<EntityPlayerMP>> entry : players.entrySet()) {
+            // Same chat type as MessageChannel.send(Text)
+            PacketBroadcaster.sendToAll(new S02PacketChat(SpongeTexts.toComponent(message, entry.getKey()), (byte) 1), entry.getValue());
+        }
+
+        if (channel == MessageChannel.TO_ALL) {
+            SpongeImpl.getGame().getServer().getConsole().sendMessage(message);
+        }
+    }
+
+    /**
+     * Flushes the channel batches and the outbound packets of all players.
+     * Called once per tick after the scheduler, so packets sent by
+     * synchronous tasks go out in the same tick.
+     *
+     * @param server The server
+     */
+    public static void flushNetwork(MinecraftServer server) {
+        ((VanillaChannelRegistrar) SpongeImpl.getGame().getChannelRegistrar()).flush();
+        for (Object player : server.getConfigurationManager().playerEntityList) {
+            ((IMixinNetworkManager) ((EntityPlayerMP) player).playerNetServerHandler.getNetworkManager()).flushOutbound();
+        }
+        if (server.getTickCounter() % 100 == 0) {
+            NetworkMetrics.updateRates();
+        }
+    }
+
     // This method may be un-needed now
     private static void copyStack(ItemStack source, ItemStack target) {
         target.stackSize = source.stackSize;
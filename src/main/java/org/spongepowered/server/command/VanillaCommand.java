@@ -0,0 +1,212 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.command;
+
+import static org.spongepowered.api.command.args.GenericArguments.optional;
+import static org.spongepowered.api.command.args.GenericArguments.string;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.server.MinecraftServer;
+import org.spongepowered.api.command.CommandException;
+import org.spongepowered.api.command.CommandResult;
+import org.spongepowered.api.command.CommandSource;
+import org.spongepowered.api.command.args.CommandContext;
+import org.spongepowered.api.command.spec.CommandSpec;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.text.Text;
+import org.spongepowered.api.text.format.TextColors;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.server.VanillaHooks;
+import org.spongepowered.server.event.NotificationDispatcher;
+import org.spongepowered.server.interfaces.IMixinNetHandlerPlayServer;
+import org.spongepowered.server.interfaces.IMixinNetworkManager;
+import org.spongepowered.server.network.AsyncCompressionEncoder;
+import org.spongepowered.server.network.ChannelMetrics;
+import org.spongepowered.server.network.NetworkMetrics;
+import org.spongepowered.server.network.PacketRateLimiter;
+import org.spongepowered.server.network.VanillaChannelBinding;
+import org.spongepowered.server.network.VanillaChannelRegistrar;
+import org.spongepowered.server.world.storage.PlayerDataWriter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The {@code /spongevanilla} command showing diagnostics of the server
+ * implementation.
+ */
+public final class VanillaCommand {
+
+    private VanillaCommand() {
+    }
+
+    public static CommandSpec create() {
+        return CommandSpec.builder()
+                .description(Text.of("Shows SpongeVanilla diagnostics"))
+                .permission("sponge.command.vanilla")
+                .child(createChannelsCommand(), "channels")
+                .child(createNetworkCommand(), "network")
+                .child(createRateLimitsCommand(), "ratelimits")
+                .child(createPlayerDataCommand(), "playerdata")
+                .child(createNotificationsCommand(), "notifications")
+                .build();
+    }
+
+    private static CommandSpec createChannelsCommand() {
+        return CommandSpec.builder()
+                .description(Text.of("Shows the traffic of plugin channels"))
+                .permission("sponge.command.vanilla.channels")
+                .arguments(optional(string(Text.of("plugin"))))
+                .executor(VanillaCommand::showChannels)
+                .build();
+    }
+
+    private static CommandSpec createNetworkCommand() {
+        return CommandSpec.builder()
+                .description(Text.of("Shows the packets written and flushed and the compression of connections"))
+                .permission("sponge.command.vanilla.network")
+                .executor((src, args) -> {
+                    src.sendMessage(Text.of(TextColors.GOLD, "Packets: ", TextColors.RESET,
+                            String.format("%d (%.1f/s)", NetworkMetrics.getPackets(), NetworkMetrics.getPacketsPerSecond())));
+                    src.sendMessage(Text.of(TextColors.GOLD, "Flushes: ", TextColors.RESET,
+                            String.format("%d (%.1f/s)", NetworkMetrics.getFlushes(), NetworkMetrics.getFlushesPerSecond())));
+                    showCompression(src);
+                    return CommandResult.success();
+                })
+                .build();
+    }
+
+    private static void showCompression(CommandSource src) {
+        for (Object player : MinecraftServer.getServer().getConfigurationManager().playerEntityList) {
+            final Channel channel = ((IMixinNetworkManager) ((EntityPlayerMP) player).playerNetServerHandler.getNetworkManager()).getChannel();
+            final ChannelHandler handler = channel != null ? channel.pipeline().get("compress") : null;
+            if (handler instanceof AsyncCompressionEncoder) {
+                final AsyncCompressionEncoder encoder = (AsyncCompressionEncoder) handler;
+                src.sendMessage(Text.of(TextColors.GRAY, ((EntityPlayerMP) player).getName(), ": ", TextColors.RESET,
+                        String.format("compression: %.2f ms, %d async packets; queue: %d (max %d)", encoder.getCompressionMillis(),
+                                encoder.getAsyncPackets(), encoder.getQueueDepth(), encoder.getMaxQueueDepth())));
+            }
+        }
+    }
+
+    private static CommandSpec createRateLimitsCommand() {
+        return CommandSpec.builder()
+                .description(Text.of("Shows the players that exceeded the packet rate limits"))
+                .permission("sponge.command.vanilla.ratelimits")
+                .executor(VanillaCommand::showRateLimits)
+                .build();
+    }
+
+    private static CommandResult showRateLimits(CommandSource src, CommandContext args) {
+        final List<EntityPlayerMP> offenders = new ArrayList<>();
+        for (Object player : MinecraftServer.getServer().getConfigurationManager().playerEntityList) {
+            if (getRateLimiter((EntityPlayerMP) player).getLimitedPackets() > 0) {
+                offenders.add((EntityPlayerMP) player);
+            }
+        }
+
+        if (offenders.isEmpty()) {
+            src.sendMessage(Text.of("No player exceeded the packet rate limits"));
+            return CommandResult.empty();
+        }
+
+        offenders.sort(Comparator.comparingLong(player -> -getRateLimiter(player).getLimitedPackets()));
+        for (EntityPlayerMP player : offenders) {
+            final PacketRateLimiter limiter = getRateLimiter(player);
+            src.sendMessage(Text.of(TextColors.GOLD, player.getName(), ": ", TextColors.RESET,
+                    String.format("%d limited packets, last: %s", limiter.getLimitedPackets(), limiter.getLastLimitedType())));
+        }
+        return CommandResult.successCount(offenders.size());
+    }
+
+    private static CommandSpec createPlayerDataCommand() {
+        return CommandSpec.builder()
+                .description(Text.of("Shows the player data written by the writer thread"))
+                .permission("sponge.command.vanilla.playerdata")
+                .executor((src, args) -> {
+                    src.sendMessage(Text.of(TextColors.GOLD, "Writes: ", TextColors.RESET,
+                            String.format("%d (%d failed, %d coalesced)", PlayerDataWriter.getWrites(), PlayerDataWriter.getFailed(),
+                                    PlayerDataWriter.getCoalesced())));
+                    src.sendMessage(Text.of(TextColors.GOLD, "Write time: ", TextColors.RESET,
+                            String.format("%.2f ms average, %.2f ms max", PlayerDataWriter.getAverageWriteMillis(),
+                                    PlayerDataWriter.getMaxWriteMillis())));
+                    return CommandResult.success();
+                })
+                .build();
+    }
+
+    private static CommandSpec createNotificationsCommand() {
+        return CommandSpec.builder()
+                .description(Text.of("Shows the notifications delivered to plugins off the main thread"))
+                .permission("sponge.command.vanilla.notifications")
+                .executor((src, args) -> {
+                    final NotificationDispatcher notifications = VanillaHooks.getNotifications();
+                    src.sendMessage(Text.of(TextColors.GOLD, "Notifications: ", TextColors.RESET,
+                            String.format("%d submitted, %d delivered, %d dropped, %d queued", notifications.getSubmitted(),
+                                    notifications.getDelivered(), notifications.getDropped(), notifications.getQueued())));
+                    return CommandResult.success();
+                })
+                .build();
+    }
+
+    private static PacketRateLimiter getRateLimiter(EntityPlayerMP player) {
+        return ((IMixinNetHandlerPlayServer) player.playerNetServerHandler).getRateLimiter();
+    }
+
+    private static CommandResult showChannels(CommandSource src, CommandContext args) throws CommandException {
+        final VanillaChannelRegistrar registrar = (VanillaChannelRegistrar) SpongeImpl.getGame().getChannelRegistrar();
+
+        final List<VanillaChannelBinding> channels;
+        final Optional<String> pluginId = args.getOne("plugin");
+        if (pluginId.isPresent()) {
+            final PluginContainer plugin = SpongeImpl.getGame().getPluginManager().getPlugin(pluginId.get())
+                    .orElseThrow(() -> new CommandException(Text.of("Unknown plugin: ", pluginId.get())));
+            channels = new ArrayList<>(registrar.getChannels(plugin));
+        } else {
+            channels = new ArrayList<>(registrar.getChannels());
+        }
+
+        if (channels.isEmpty()) {
+            src.sendMessage(Text.of("No plugin channels are registered"));
+            return CommandResult.empty();
+        }
+
+        // Chattiest channels first
+        channels.sort(Comparator.comparingLong(channel -> -(channel.getMetrics().getBytesIn() + channel.getMetrics().getBytesOut())));
+        for (VanillaChannelBinding channel : channels) {
+            final ChannelMetrics metrics = channel.getMetrics();
+            src.sendMessage(Text.of(TextColors.GOLD, channel.getName(), TextColors.GRAY, " (", channel.getOwner().getId(), ") ", TextColors.RESET,
+                    String.format("in: %d messages, %d bytes; out: %d messages, %d bytes; decode: %.2f ms; handlers: %.2f ms",
+                            metrics.getMessagesIn(), metrics.getBytesIn(), metrics.getMessagesOut(), metrics.getBytesOut(),
+                            metrics.getDecodeMillis(), metrics.getHandlerMillis())));
+        }
+        return CommandResult.successCount(channels.size());
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.config;
+
+import ninja.leaping.configurate.ConfigurationNode;
+import ninja.leaping.configurate.ConfigurationOptions;
+import ninja.leaping.configurate.commented.CommentedConfigurationNode;
+import ninja.leaping.configurate.hocon.HoconConfigurationLoader;
+import org.spongepowered.common.SpongeImpl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.annotation.Nullable;
+
+/**
+ * The SpongeVanilla specific configuration, stored in {@code vanilla.conf}
+ * in the Sponge configuration directory.
+ *
+ * <p>Settings are grouped in categories. A world can override any setting
+ * in the {@code worlds.<world name>} section, settings that are not
+ * overridden use the global value. Missing global settings are added with
+ * their default value and saved when the server stops.</p>
+ */
+public final class VanillaConfig {
+
+    public static final String FILE_NAME = "vanilla.conf";
+
+    private static final String HEADER = "SpongeVanilla configuration\n"
+            + "Settings can be overridden per world in the 'worlds.<world name>' section.";
+    private static final String WORLDS = "worlds";
+
+    @Nullable private static VanillaConfig instance;
+
+    private final Path path;
+    private final HoconConfigurationLoader loader;
+    private CommentedConfigurationNode root;
+    private boolean dirty;
+
+    private VanillaConfig(Path path) {
+        this.path = path;
+        this.loader = HoconConfigurationLoader.builder().setPath(path).build();
+        this.root = this.loader.createEmptyNode(ConfigurationOptions.defaults().setHeader(HEADER));
+    }
+
+    public static synchronized VanillaConfig getInstance() {
+        if (instance == null) {
+            instance = new VanillaConfig(SpongeImpl.getConfigDir().resolve(FILE_NAME));
+            instance.load();
+        }
+        return instance;
+    }
+
+    public synchronized void load() {
+        if (Files.notExists(this.path)) {
+            this.dirty = true;
+            return;
+        }
+
+        try {
+            this.root = this.loader.load(ConfigurationOptions.defaults().setHeader(HEADER));
+        } catch (IOException e) {
+            SpongeImpl.getLogger().error("Failed to load {}, using the default settings", this.path, e);
+        }
+    }
+
+    public synchronized void save() {
+        if (!this.dirty) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(this.path.getParent());
+            this.loader.save(this.root);
+            this.dirty = false;
+        } catch (IOException e) {
+            SpongeImpl.getLogger().error("Failed to save {}", this.path, e);
+        }
+    }
+
+    private synchronized ConfigurationNode getNode(@Nullable String world, String category, String key, Object def, String comment) {
+        final CommentedConfigurationNode node = this.root.getNode(category, key);
+        if (node.isVirtual()) {
+            node.setValue(def).setComment(comment);
+            this.dirty = true;
+        }
+
+        if (world != null) {
+            final ConfigurationNode worldNode = this.root.getNode(WORLDS, world, category, key);
+            if (!worldNode.isVirtual()) {
+                return worldNode;
+            }
+        }
+        return node;
+    }
+
+    public boolean getBoolean(@Nullable String world, String category, String key, boolean def, String comment) {
+        return getNode(world, category, key, def, comment).getBoolean(def);
+    }
+
+    public int getInt(@Nullable String world, String category, String key, int def, String comment) {
+        return getNode(world, category, key, def, comment).getInt(def);
+    }
+
+    public double getDouble(@Nullable String world, String category, String key, double def, String comment) {
+        return getNode(world, category, key, def, comment).getDouble(def);
+    }
+
+}
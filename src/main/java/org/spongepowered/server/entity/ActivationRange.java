@@ -0,0 +1,175 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.entity;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityFlying;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.entity.IProjectile;
+import net.minecraft.entity.boss.EntityDragon;
+import net.minecraft.entity.boss.EntityWither;
+import net.minecraft.entity.effect.EntityWeatherEffect;
+import net.minecraft.entity.item.EntityEnderCrystal;
+import net.minecraft.entity.item.EntityFallingBlock;
+import net.minecraft.entity.item.EntityFireworkRocket;
+import net.minecraft.entity.item.EntityTNTPrimed;
+import net.minecraft.entity.monster.EntityCreeper;
+import net.minecraft.entity.monster.IMob;
+import net.minecraft.entity.passive.EntityAmbientCreature;
+import net.minecraft.entity.passive.EntityWaterMob;
+import net.minecraft.entity.passive.IAnimals;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.projectile.EntityFireball;
+import net.minecraft.world.WorldServer;
+import org.spongepowered.server.config.VanillaConfig;
+import org.spongepowered.server.interfaces.IMixinEntity;
+import org.spongepowered.server.interfaces.IMixinWorldServer;
+
+/**
+ * Decides which entities of a world are fully ticked. Entities further away
+ * from all players than the activation range of their type only get a
+ * minimal tick, see {@link IMixinEntity#inactiveTick()}.
+ *
+ * <p>Some entities are never deactivated, because skipping their tick would
+ * be noticeable: players, projectiles, bosses and entities that are riding,
+ * burning, falling, moving, in water, recently hurt or targeting
+ * something.</p>
+ */
+public final class ActivationRange {
+
+    private static final String CATEGORY = "entity-activation-range";
+
+    // Entities are always active in the first ticks after spawning
+    private static final int SPAWN_IMMUNITY_TICKS = 20;
+
+    // Squared horizontal speed above which an entity is considered moving
+    private static final double MOVING_THRESHOLD = 1.0E-4D;
+
+    private final WorldServer world;
+    private final boolean enabled;
+    private final int monsterRange;
+    private final int creatureRange;
+    private final int miscRange;
+    private final int maxRange;
+
+    private long currentTick = Long.MIN_VALUE;
+
+    public ActivationRange(WorldServer world) {
+        this.world = world;
+
+        final VanillaConfig config = VanillaConfig.getInstance();
+        final String name = world.getWorldInfo().getWorldName();
+        this.enabled = config.getBoolean(name, CATEGORY, "enabled", true,
+                "If enabled, entities far away from players only age and despawn, but are not fully ticked");
+        this.monsterRange = config.getInt(name, CATEGORY, "monster-range", 32, "The activation range of monsters");
+        this.creatureRange = config.getInt(name, CATEGORY, "creature-range", 32, "The activation range of animals and other creatures");
+        this.miscRange = config.getInt(name, CATEGORY, "misc-range", 16, "The activation range of all other entities, e.g. items");
+        this.maxRange = Math.max(this.monsterRange, Math.max(this.creatureRange, this.miscRange));
+    }
+
+    /**
+     * Marks all entities within the activation range of a player as active
+     * for the current tick. Called before the world ticks its entities.
+     */
+    public void activateEntities() {
+        if (!this.enabled) {
+            return;
+        }
+
+        this.currentTick = this.world.getTotalWorldTime();
+        for (Object obj : this.world.playerEntities) {
+            final EntityPlayer player = (EntityPlayer) obj;
+            ((IMixinWorldServer) this.world).getEntityGrid().forEachInRadius(player.posX, player.posY, player.posZ, this.maxRange,
+                    entity -> {
+                        final int range = getRange(entity);
+                        if (entity.getDistanceSqToEntity(player) <= range * range) {
+                            ((IMixinEntity) entity).setActivatedTick(this.currentTick);
+                        }
+                        return true;
+                    });
+        }
+    }
+
+    /**
+     * Returns whether the entity should be fully ticked in this tick.
+     *
+     * @param entity The entity
+     * @return True if the entity is active
+     */
+    public boolean isActive(Entity entity) {
+        return !this.enabled || ((IMixinEntity) entity).getActivatedTick() >= this.currentTick || isImmune(entity);
+    }
+
+    private int getRange(Entity entity) {
+        if (entity instanceof IMob) {
+            return this.monsterRange;
+        }
+        if (entity instanceof IAnimals) {
+            return this.creatureRange;
+        }
+        return this.miscRange;
+    }
+
+    private static boolean isImmune(Entity entity) {
+        if (entity instanceof EntityPlayer || entity instanceof IProjectile || entity instanceof EntityFireball
+                || entity instanceof EntityWeatherEffect || entity instanceof EntityTNTPrimed || entity instanceof EntityFallingBlock
+                || entity instanceof EntityFireworkRocket || entity instanceof EntityWither || entity instanceof EntityDragon
+                || entity instanceof EntityEnderCrystal) {
+            return true;
+        }
+
+        if (entity.ticksExisted < SPAWN_IMMUNITY_TICKS || entity.ridingEntity != null || entity.riddenByEntity != null
+                || entity.isBurning()) {
+            return true;
+        }
+
+        // Water mobs and flying mobs are always in water or in the air
+        final boolean swimsOrFlies = entity instanceof EntityWaterMob || entity instanceof EntityFlying
+                || entity instanceof EntityAmbientCreature;
+        if (!swimsOrFlies && (entity.isInWater() || !entity.onGround)) {
+            return true;
+        }
+
+        if (entity.motionX * entity.motionX + entity.motionZ * entity.motionZ > MOVING_THRESHOLD) {
+            return true;
+        }
+
+        if (entity instanceof EntityLivingBase) {
+            if (((EntityLivingBase) entity).hurtTime > 0) {
+                return true;
+            }
+            if (entity instanceof EntityLiving && ((EntityLiving) entity).getAttackTarget() != null) {
+                return true;
+            }
+            if (entity instanceof EntityCreeper && ((EntityCreeper) entity).getCreeperState() > 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+}
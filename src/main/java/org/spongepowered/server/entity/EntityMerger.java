@@ -0,0 +1,126 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.entity;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.item.EntityXPOrb;
+import net.minecraft.world.WorldServer;
+import org.spongepowered.server.config.VanillaConfig;
+import org.spongepowered.server.interfaces.IMixinEntityItem;
+import org.spongepowered.server.interfaces.IMixinEntityXPOrb;
+import org.spongepowered.server.interfaces.IMixinWorldServer;
+
+/**
+ * Merges items and experience orbs into nearby items and orbs of the same
+ * world, when they are added to the world and periodically while they
+ * exist. Items thrown by players are only merged periodically, so they are
+ * seen leaving the player before they join a stack.
+ *
+ * <p>Items are combined with the vanilla rules, so only stacks of the same
+ * item, metadata and NBT are merged. Experience orbs are merged as long as
+ * the combined value still fits in the spawn packet.</p>
+ */
+public final class EntityMerger {
+
+    private static final String CATEGORY = "entity-merge";
+
+    // The experience value is sent as a short
+    private static final int MAX_XP_VALUE = Short.MAX_VALUE;
+
+    private final WorldServer world;
+    private final boolean enabled;
+    private final double itemRadius;
+    private final double xpRadius;
+    private final int xpInterval;
+
+    public EntityMerger(WorldServer world) {
+        this.world = world;
+
+        final VanillaConfig config = VanillaConfig.getInstance();
+        final String name = world.getWorldInfo().getWorldName();
+        this.enabled = config.getBoolean(name, CATEGORY, "enabled", true,
+                "If enabled, nearby items and experience orbs are merged to reduce the number of entities");
+        this.itemRadius = config.getDouble(name, CATEGORY, "item-radius", 2.5D, "The distance within which items are merged");
+        this.xpRadius = config.getDouble(name, CATEGORY, "xp-radius", 3.0D, "The distance within which experience orbs are merged");
+        this.xpInterval = Math.max(1, config.getInt(name, CATEGORY, "xp-interval", 20,
+                "The number of ticks between merges of an experience orb"));
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public int getXpInterval() {
+        return this.xpInterval;
+    }
+
+    /**
+     * Merges the entity with nearby entities of the same kind.
+     *
+     * @param entity The entity to merge
+     * @return True if the entity was merged into another one and is dead now
+     */
+    public boolean merge(Entity entity) {
+        if (!this.enabled || entity.isDead) {
+            return false;
+        }
+
+        if (entity instanceof EntityItem) {
+            mergeItem((EntityItem) entity);
+        } else if (entity instanceof EntityXPOrb) {
+            mergeOrb((EntityXPOrb) entity);
+        }
+        return entity.isDead;
+    }
+
+    private void mergeItem(EntityItem item) {
+        ((IMixinWorldServer) this.world).getEntityGrid().forEachInRadius(item.posX, item.posY, item.posZ, this.itemRadius, other -> {
+            if (other != item && other instanceof EntityItem && !other.isDead) {
+                // The item may absorb multiple smaller stacks before it is merged itself
+                ((IMixinEntityItem) item).combineWith((EntityItem) other);
+            }
+            return !item.isDead;
+        });
+    }
+
+    private void mergeOrb(EntityXPOrb orb) {
+        ((IMixinWorldServer) this.world).getEntityGrid().forEachInRadius(orb.posX, orb.posY, orb.posZ, this.xpRadius, other -> {
+            if (other != orb && other instanceof EntityXPOrb && !other.isDead) {
+                final EntityXPOrb target = (EntityXPOrb) other;
+                final int xpValue = target.getXpValue() + orb.getXpValue();
+                if (xpValue <= MAX_XP_VALUE) {
+                    ((IMixinEntityXPOrb) target).setXpValue(xpValue);
+                    target.xpOrbAge = Math.min(target.xpOrbAge, orb.xpOrbAge);
+                    target.delayBeforeCanPickup = Math.max(target.delayBeforeCanPickup, orb.delayBeforeCanPickup);
+                    orb.setDead();
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.entity.player;
+
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.BlockPos;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+/**
+ * Stores the spawn points of a player in dimensions other than the
+ * overworld, as packed {@link BlockPos} values keyed by dimension id.
+ */
+public final class SpawnPoints {
+
+    private static final String NBT_TAG = "Spawns";
+
+    // Bit layout of BlockPos.toLong
+    private static final int NUM_X_BITS = 26;
+    private static final int NUM_Z_BITS = 26;
+    private static final int NUM_Y_BITS = 12;
+    private static final int Y_SHIFT = NUM_Z_BITS;
+    private static final int X_SHIFT = Y_SHIFT + NUM_Y_BITS;
+
+    private int[] dimensions = new int[2];
+    private long[] positions = new long[2];
+    private boolean[] forced = new boolean[2];
+    private int size;
+
+    private int indexOf(int dimension) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.dimensions[i] == dimension) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Nullable
+    public BlockPos get(int dimension) {
+        final int index = indexOf(dimension);
+        return index >= 0 ? BlockPos.fromLong(this.positions[index]) : null;
+    }
+
+    public boolean isForced(int dimension) {
+        final int index = indexOf(dimension);
+        return index >= 0 && this.forced[index];
+    }
+
+    public void put(int dimension, BlockPos pos, boolean forced) {
+        int index = indexOf(dimension);
+        if (index < 0) {
+            if (this.size == this.dimensions.length) {
+                final int capacity = this.size << 1;
+                this.dimensions = Arrays.copyOf(this.dimensions, capacity);
+                this.positions = Arrays.copyOf(this.positions, capacity);
+                this.forced = Arrays.copyOf(this.forced, capacity);
+            }
+            index = this.size++;
+            this.dimensions[index] = dimension;
+        }
+
+        this.positions[index] = pos.toLong();
+        this.forced[index] = forced;
+    }
+
+    public void remove(int dimension) {
+        final int index = indexOf(dimension);
+        if (index >= 0) {
+            final int last = --this.size;
+            this.dimensions[index] = this.dimensions[last];
+            this.positions[index] = this.positions[last];
+            this.forced[index] = this.forced[last];
+        }
+    }
+
+    public void readFromNBT(NBTTagCompound compound) {
+        final NBTTagList spawnlist = compound.getTagList(NBT_TAG, 10);
+        for (int i = 0; i < spawnlist.tagCount(); i++) {
+            final NBTTagCompound spawndata = spawnlist.getCompoundTagAt(i);
+            put(spawndata.getInteger("Dim"), new BlockPos(spawndata.getInteger("SpawnX"), spawndata.getInteger("SpawnY"),
+                    spawndata.getInteger("SpawnZ")), spawndata.getBoolean("SpawnForced"));
+        }
+    }
+
+    public void writeToNBT(NBTTagCompound compound) {
+        if (this.size == 0) {
+            return;
+        }
+
+        final NBTTagList spawnlist = new NBTTagList();
+        for (int i = 0; i < this.size; i++) {
+            final long pos = this.positions[i];
+            final NBTTagCompound spawndata = new NBTTagCompound();
+            spawndata.setInteger("Dim", this.dimensions[i]);
+            // Unpack without creating a BlockPos, matches BlockPos.fromLong
+            spawndata.setInteger("SpawnX", (int) (pos << 64 - X_SHIFT - NUM_X_BITS >> 64 - NUM_X_BITS));
+            spawndata.setInteger("SpawnY", (int) (pos << 64 - Y_SHIFT - NUM_Y_BITS >> 64 - NUM_Y_BITS));
+            spawndata.setInteger("SpawnZ", (int) (pos << 64 - NUM_Z_BITS >> 64 - NUM_Z_BITS));
+            spawndata.setBoolean("SpawnForced", this.forced[i]);
+            spawnlist.appendTag(spawndata);
+        }
+        compound.setTag(NBT_TAG, spawnlist);
+    }
+
+}
@@ -0,0 +1,259 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.event;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+import org.spongepowered.common.SpongeImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+/**
+ * Delivers notifications that cannot be cancelled or modified to listeners on
+ * a separate thread, so they do not slow down the server thread.
+ *
+ * <p>Notifications are immutable payloads from the
+ * {@link org.spongepowered.server.event.notification} package. They are
+ * queued on a bounded queue and dropped if the listeners cannot keep up. A
+ * listener receives the notifications of its type and all subtypes.</p>
+ *
+ * <p>This is an internal extension of SpongeVanilla, not part of the API.
+ * Plugins using it through {@link org.spongepowered.server.VanillaHooks#getNotifications()}
+ * only work on SpongeVanilla.</p>
+ */
+@Singleton
+public final class NotificationDispatcher {
+
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final long SHUTDOWN_TIMEOUT = 5;
+
+    private static final RegisteredNotificationListener[] NO_LISTENERS = new RegisteredNotificationListener[0];
+
+    private final PluginManager pluginManager;
+    private final List<RegisteredNotificationListener> registrations = new ArrayList<>();
+    private final Map<Class<?>, RegisteredNotificationListener[]> listeners = new ConcurrentHashMap<>();
+
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    @Nullable private volatile Thread thread;
+    private volatile boolean running;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Inject
+    public NotificationDispatcher(PluginManager pluginManager) {
+        this.pluginManager = pluginManager;
+    }
+
+    /**
+     * Registers a listener for notifications of the given type and its
+     * subtypes. The listener is called on the notification thread.
+     *
+     * @param plugin The plugin instance
+     * @param type The notification type
+     * @param listener The listener
+     * @param <T> The notification type
+     */
+    public <T> void register(Object plugin, Class<T> type, Consumer<? super T> listener) {
+        final Optional<PluginContainer> container = this.pluginManager.fromInstance(checkNotNull(plugin, "plugin"));
+        if (!container.isPresent()) {
+            throw new IllegalArgumentException("Plugin " + plugin + " is not registered");
+        }
+
+        startThread();
+        synchronized (this.registrations) {
+            this.registrations.add(new RegisteredNotificationListener(container.get(), checkNotNull(type, "type"),
+                    checkNotNull(listener, "listener")));
+            this.listeners.clear();
+        }
+    }
+
+    public void unregisterPluginListeners(Object plugin) {
+        final Optional<PluginContainer> container = this.pluginManager.fromInstance(checkNotNull(plugin, "plugin"));
+        if (container.isPresent()) {
+            synchronized (this.registrations) {
+                this.registrations.removeIf(listener -> listener.plugin == container.get());
+                this.listeners.clear();
+            }
+        }
+    }
+
+    private RegisteredNotificationListener[] getListeners(Class<?> type) {
+        final RegisteredNotificationListener[] result = this.listeners.get(type);
+        return result != null ? result : resolveListeners(type);
+    }
+
+    private RegisteredNotificationListener[] resolveListeners(Class<?> type) {
+        synchronized (this.registrations) {
+            final List<RegisteredNotificationListener> result = new ArrayList<>();
+            for (RegisteredNotificationListener listener : this.registrations) {
+                if (listener.type.isAssignableFrom(type)) {
+                    result.add(listener);
+                }
+            }
+            final RegisteredNotificationListener[] array = result.isEmpty() ? NO_LISTENERS : result.toArray(NO_LISTENERS);
+            this.listeners.put(type, array);
+            return array;
+        }
+    }
+
+    /**
+     * Returns whether any listener would receive a notification of the given
+     * type. Hooks use this to skip creating the payload.
+     *
+     * @param type The notification type
+     * @return True if the notification type has listeners
+     */
+    public boolean hasListeners(Class<?> type) {
+        return getListeners(type).length > 0;
+    }
+
+    /**
+     * Queues a notification for delivery. If the queue is full, the
+     * notification is dropped.
+     *
+     * @param notification The notification
+     */
+    public void post(Object notification) {
+        if (!this.running || getListeners(notification.getClass()).length == 0) {
+            return;
+        }
+
+        this.submitted.incrementAndGet();
+        if (!this.queue.offer(notification)) {
+            this.dropped.incrementAndGet();
+        }
+    }
+
+    public long getSubmitted() {
+        return this.submitted.get();
+    }
+
+    public long getDelivered() {
+        return this.delivered.get();
+    }
+
+    public long getDropped() {
+        return this.dropped.get();
+    }
+
+    public int getQueued() {
+        return this.queue.size();
+    }
+
+    private synchronized void startThread() {
+        if (this.thread == null) {
+            this.running = true;
+            final Thread thread = new Thread(this::deliver, "Sponge Notification Thread");
+            thread.setDaemon(true);
+            thread.start();
+            this.thread = thread;
+        }
+    }
+
+    private void deliver() {
+        while (this.running || !this.queue.isEmpty()) {
+            final Object notification;
+            try {
+                notification = this.queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            if (notification != null) {
+                for (RegisteredNotificationListener listener : getListeners(notification.getClass())) {
+                    listener.handle(notification);
+                }
+                this.delivered.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Delivers the remaining queued notifications and stops the notification
+     * thread.
+     */
+    public synchronized void shutdown() {
+        final Thread thread = this.thread;
+        if (thread == null) {
+            return;
+        }
+
+        this.thread = null;
+        this.running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (thread.isAlive()) {
+            thread.interrupt();
+            final int remaining = this.queue.size();
+            this.queue.clear();
+            this.dropped.addAndGet(remaining);
+            SpongeImpl.getLogger().warn("Dropping {} notifications that were not delivered in time", remaining);
+        }
+    }
+
+    private static final class RegisteredNotificationListener {
+
+        final PluginContainer plugin;
+        final Class<?> type;
+        final Consumer<Object> listener;
+
+        @SuppressWarnings("unchecked")
+        RegisteredNotificationListener(PluginContainer plugin, Class<?> type, Consumer<?> listener) {
+            this.plugin = plugin;
+            this.type = type;
+            this.listener = (Consumer<Object>) listener;
+        }
+
+        void handle(Object notification) {
+            try {
+                this.listener.accept(notification);
+            } catch (Throwable e) {
+                SpongeImpl.getLogger().error("Could not pass {} to {}", notification.getClass().getSimpleName(), this.plugin.getId(), e);
+            }
+        }
+    }
+
+}
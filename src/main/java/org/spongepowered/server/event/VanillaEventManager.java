@@ -0,0 +1,203 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.event;
+
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.EventListener;
+import org.spongepowered.api.event.EventManager;
+import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.event.SpongeEventManager;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * An event manager that keeps track of the event types plugins listen to,
+ * allowing hooks to skip constructing events nobody observes.
+ *
+ * <p>Events are posted by {@link SpongeEventManager} itself, which already
+ * calls generated listener classes through the listener lists it caches per
+ * event class.</p>
+ */
+@Singleton
+public class VanillaEventManager extends SpongeEventManager {
+
+    private final PluginManager pluginManager;
+    private final NotificationDispatcher notifications;
+
+    private final List<Registration> registrations = Lists.newArrayList();
+    private final Map<Class<?>, Boolean> hasListeners = new ConcurrentHashMap<>();
+    // Checked on first use, the logger is not available while the game is injected
+    @Nullable private volatile Boolean tracking;
+
+    @Inject
+    public VanillaEventManager(PluginManager pluginManager, NotificationDispatcher notifications) {
+        super(pluginManager);
+        this.pluginManager = pluginManager;
+        this.notifications = notifications;
+    }
+
+    public NotificationDispatcher getNotifications() {
+        return this.notifications;
+    }
+
+    /**
+     * Returns whether any listener would receive an event of the given type.
+     *
+     * @param eventClass The event type
+     * @return True if the event type has listeners
+     */
+    public boolean hasListeners(Class<? extends Event> eventClass) {
+        Boolean tracking = this.tracking;
+        if (tracking == null) {
+            this.tracking = tracking = overridesAllRegistrations();
+        }
+        if (!tracking) {
+            return true;
+        }
+        final Boolean result = this.hasListeners.get(eventClass);
+        return result != null ? result : computeHasListeners(eventClass);
+    }
+
+    /**
+     * Checks that every method of the {@link EventManager} that registers or
+     * unregisters listeners is overridden here. SpongeEventManager only
+     * changes its listeners through these methods, so the tracked types can't
+     * miss a listener the events would be posted to.
+     */
+    private static boolean overridesAllRegistrations() {
+        for (Method method : EventManager.class.getMethods()) {
+            if (method.getName().startsWith("register") || method.getName().startsWith("unregister")) {
+                try {
+                    VanillaEventManager.class.getDeclaredMethod(method.getName(), method.getParameterTypes());
+                } catch (NoSuchMethodException e) {
+                    SpongeImpl.getLogger().warn("{} is not tracked, all events will be constructed", method);
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean computeHasListeners(Class<?> eventClass) {
+        synchronized (this.registrations) {
+            boolean result = false;
+            for (Registration registration : this.registrations) {
+                if (registration.eventClass.isAssignableFrom(eventClass)) {
+                    result = true;
+                    break;
+                }
+            }
+            this.hasListeners.put(eventClass, result);
+            return result;
+        }
+    }
+
+    private void track(Object plugin, Object listener, Class<?> eventClass) {
+        final Optional<PluginContainer> container = this.pluginManager.fromInstance(plugin);
+        synchronized (this.registrations) {
+            this.registrations.add(new Registration(container.isPresent() ? container.get() : plugin, listener, eventClass));
+            this.hasListeners.clear();
+        }
+    }
+
+    private void untrack(Object key, boolean byPlugin) {
+        synchronized (this.registrations) {
+            final Iterator<Registration> itr = this.registrations.iterator();
+            while (itr.hasNext()) {
+                final Registration registration = itr.next();
+                if ((byPlugin ? registration.plugin : registration.listener) == key) {
+                    itr.remove();
+                }
+            }
+            this.hasListeners.clear();
+        }
+    }
+
+    @Override
+    public void registerListeners(Object plugin, Object listener) {
+        super.registerListeners(plugin, listener);
+
+        for (Method method : listener.getClass().getMethods()) {
+            if (method.isAnnotationPresent(Listener.class) && method.getParameterCount() > 0
+                    && Event.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                track(plugin, listener, method.getParameterTypes()[0]);
+            }
+        }
+    }
+
+    @Override
+    public <T extends Event> void registerListener(Object plugin, Class<T> eventClass, EventListener<? super T> listener) {
+        super.registerListener(plugin, eventClass, listener);
+        track(plugin, listener, eventClass);
+    }
+
+    @Override
+    public <T extends Event> void registerListener(Object plugin, Class<T> eventClass, Order order, EventListener<? super T> listener) {
+        super.registerListener(plugin, eventClass, order, listener);
+        track(plugin, listener, eventClass);
+    }
+
+    @Override
+    public void unregisterListeners(Object listener) {
+        super.unregisterListeners(listener);
+        untrack(listener, false);
+    }
+
+    @Override
+    public void unregisterPluginListeners(Object plugin) {
+        super.unregisterPluginListeners(plugin);
+        this.notifications.unregisterPluginListeners(plugin);
+        final Optional<PluginContainer> container = this.pluginManager.fromInstance(plugin);
+        untrack(container.isPresent() ? container.get() : plugin, true);
+    }
+
+    private static final class Registration {
+
+        final Object plugin;
+        final Object listener;
+        final Class<?> eventClass;
+
+        Registration(Object plugin, Object listener, Class<?> eventClass) {
+            this.plugin = plugin;
+            this.listener = listener;
+            this.eventClass = eventClass;
+        }
+    }
+
+}
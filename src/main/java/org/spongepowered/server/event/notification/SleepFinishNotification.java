@@ -0,0 +1,71 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.event.notification;
+
+import com.flowpowered.math.vector.Vector3i;
+import com.google.common.base.MoreObjects;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+/**
+ * Notifies about a player that finished waking up.
+ */
+public final class SleepFinishNotification {
+
+    private final UUID playerId;
+    private final UUID worldId;
+    @Nullable private final Vector3i bedPosition;
+
+    public SleepFinishNotification(UUID playerId, UUID worldId, @Nullable Vector3i bedPosition) {
+        this.playerId = playerId;
+        this.worldId = worldId;
+        this.bedPosition = bedPosition;
+    }
+
+    public UUID getPlayerId() {
+        return this.playerId;
+    }
+
+    public UUID getWorldId() {
+        return this.worldId;
+    }
+
+    public Optional<Vector3i> getBedPosition() {
+        return Optional.ofNullable(this.bedPosition);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("playerId", this.playerId)
+                .add("worldId", this.worldId)
+                .add("bedPosition", this.bedPosition)
+                .toString();
+    }
+
+}
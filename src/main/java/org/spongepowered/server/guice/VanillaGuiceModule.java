@@ -42,7 +42,6 @@
 import org.spongepowered.api.world.TeleportHelper;
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.SpongeVersion;
-import org.spongepowered.common.event.SpongeEventManager;
 import org.spongepowered.common.guice.ConfigDirAnnotation;
 import org.spongepowered.common.plugin.SpongeApiContainer;
 import org.spongepowered.common.registry.SpongeGameRegistry;
@@ -50,6 +49,7 @@
 import org.spongepowered.server.SpongeVanilla;
 import org.spongepowered.server.VanillaGame;
 import org.spongepowered.server.VanillaPlatform;
+import org.spongepowered.server.event.VanillaEventManager;
 import org.spongepowered.server.network.VanillaChannelRegistrar;
 import org.spongepowered.server.plugin.MinecraftPluginContainer;
 import org.spongepowered.server.plugin.VanillaPluginManager;
@@ -80,7 +80,7 @@ protected void configure() {
         bind(MinecraftVersion.class).toInstance(SpongeVersion.MINECRAFT_VERSION);
         bind(Platform.class).to(VanillaPlatform.class).in(Scopes.SINGLETON);
         bind(PluginManager.class).to(VanillaPluginManager.class).in(Scopes.SINGLETON);
-        bind(EventManager.class).to(SpongeEventManager.class).in(Scopes.SINGLETON);
+        bind(EventManager.class).to(VanillaEventManager.class).in(Scopes.SINGLETON);
         bind(GameRegistry.class).to(SpongeGameRegistry.class).in(Scopes.SINGLETON);
         bind(ServiceManager.class).to(SimpleServiceManager.class).in(Scopes.SINGLETON);
         bind(TeleportHelper.class).to(SpongeTeleportHelper.class).in(Scopes.SINGLETON);
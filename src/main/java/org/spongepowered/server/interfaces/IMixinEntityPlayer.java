@@ -25,14 +25,10 @@
 package org.spongepowered.server.interfaces;
 
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.util.BlockPos;
-
-import java.util.HashMap;
+import org.spongepowered.server.entity.player.SpawnPoints;
 
 public interface IMixinEntityPlayer extends org.spongepowered.common.interfaces.IMixinEntityPlayer {
     NBTTagCompound getEntityData();
 
-    HashMap<Integer, BlockPos> getSpawnChunkMap();
-
-    HashMap<Integer, Boolean> getSpawnForcedMap();
+    SpawnPoints getSpawnPoints();
 }
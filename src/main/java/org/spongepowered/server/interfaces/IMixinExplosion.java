@@ -30,4 +30,8 @@ public interface IMixinExplosion {
 
     Cause createCause();
 
+    int getBatchSize();
+
+    void setBatchSize(int batchSize);
+
 }
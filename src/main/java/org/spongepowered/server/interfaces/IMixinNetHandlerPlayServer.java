@@ -0,0 +1,57 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.interfaces;
+
+import net.minecraft.network.Packet;
+import org.spongepowered.server.network.PacketRateLimiter;
+
+public interface IMixinNetHandlerPlayServer {
+
+    /**
+     * Queues a packet received on the network thread to be processed on the
+     * main thread.
+     *
+     * @param packet The packet
+     */
+    void queuePacket(Packet packet);
+
+    /**
+     * Processes the queued packets, at most the configured number per tick.
+     * Called on the main thread.
+     */
+    void processQueuedPackets();
+
+    PacketRateLimiter getRateLimiter();
+
+    /**
+     * Returns whether the client registered the
+     * {@link org.spongepowered.server.network.VanillaIndexedMessageChannel#BATCH_CHANNEL}
+     * and can decode batched messages of indexed channels.
+     *
+     * @return True if the client supports batched messages
+     */
+    boolean supportsMessageBatches();
+
+}
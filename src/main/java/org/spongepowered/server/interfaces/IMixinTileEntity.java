@@ -0,0 +1,56 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.interfaces;
+
+/**
+ * Allows ticking tile entities to stop ticking while they are idle.
+ *
+ * <p>A sleeping tile entity is woken when its inventory or the inventory of
+ * a neighbouring tile entity changes (when it is marked dirty), when a
+ * neighbour block changes, when an item is dropped onto it, when an entity
+ * with an inventory moves next to it or when its inventory is marked dirty,
+ * or when the sleep time passed. Plugin provided tile entities can use this
+ * the same way as the vanilla furnace and hopper.</p>
+ *
+ * <p>Inventory changes that don't mark the inventory dirty (for example a
+ * plugin setting the slots of a minecart directly) don't wake it, so a
+ * sleeping hopper may react to them up to its sleep time (8 ticks by default)
+ * later than in vanilla.</p>
+ */
+public interface IMixinTileEntity {
+
+    boolean isSleeping();
+
+    /**
+     * Stops ticking the tile entity until it is woken, but at most for the
+     * given number of ticks.
+     *
+     * @param ticks The maximum number of ticks to sleep
+     */
+    void sleep(int ticks);
+
+    void wake();
+
+}
@@ -30,55 +30,96 @@
 import org.spongepowered.api.event.SpongeEventFactory;
 import org.spongepowered.api.event.cause.Cause;
 import org.spongepowered.api.event.cause.NamedCause;
+import org.spongepowered.api.event.entity.ConstructEntityEvent;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.server.VanillaHooks;
+import org.spongepowered.server.interfaces.IMixinEntity;
+import org.spongepowered.server.util.CustomData;
+import org.spongepowered.server.world.EntityGrid;
 
 import javax.annotation.Nullable;
 
 @Mixin(value = net.minecraft.entity.Entity.class, priority = 1001)
-public abstract class MixinEntity {
-    @Nullable private NBTTagCompound customEntityData;
+public abstract class MixinEntity implements IMixinEntity {
+    // Created when custom data is read or requested, most entities never have any
+    @Nullable private CustomData customData;
+    @Nullable private EntityGrid.Cell gridCell;
+    private int gridIndex = -1;
+    private long activatedTick = Long.MIN_VALUE;
 
     @Inject(method = "<init>(Lnet/minecraft/world/World;)V", at = @At("RETURN"), remap = false)
     public void onConstructed(World world, CallbackInfo ci) {
-        final Entity spongeEntity = (Entity) this;
-        SpongeImpl.postEvent(SpongeEventFactory.createConstructEntityEventPost(Cause.of(NamedCause.source(world)), spongeEntity,
-                spongeEntity.getType(), spongeEntity.getTransform()));
+        if (VanillaHooks.hasListeners(ConstructEntityEvent.Post.class)) {
+            final Entity spongeEntity = (Entity) this;
+            SpongeImpl.postEvent(SpongeEventFactory.createConstructEntityEventPost(Cause.of(NamedCause.source(world)), spongeEntity,
+                    spongeEntity.getType(), spongeEntity.getTransform()));
+        }
     }
 
     @Inject(method = "readFromNBT(Lnet/minecraft/nbt/NBTTagCompound;)V",
             at = @At(value = "INVOKE", target = "Lnet/minecraft/entity/Entity;readEntityFromNBT(Lnet/minecraft/nbt/NBTTagCompound;)V"))
     public void preReadFromNBTInject(NBTTagCompound tagCompound, CallbackInfo ci) {
-        if (tagCompound.hasKey("ForgeData")) {
-            this.customEntityData = tagCompound.getCompoundTag("ForgeData");
+        if (CustomData.hasCustomData(tagCompound)) {
+            getCustomData().readFromNBT(tagCompound);
         }
     }
 
     @Inject(method = "writeToNBT(Lnet/minecraft/nbt/NBTTagCompound;)V",
             at = @At(value = "INVOKE", target = "Lnet/minecraft/entity/Entity;writeEntityToNBT(Lnet/minecraft/nbt/NBTTagCompound;)V"))
     public void preWriteToNBTInject(NBTTagCompound tagCompound, CallbackInfo ci) {
-        if (this.customEntityData != null) {
-            tagCompound.setTag("ForgeData", this.customEntityData);
+        if (this.customData != null) {
+            this.customData.writeToNBT(tagCompound);
         }
     }
 
-    public final NBTTagCompound getEntityData() {
-        if (this.customEntityData == null) {
-            this.customEntityData = new NBTTagCompound();
+    private CustomData getCustomData() {
+        if (this.customData == null) {
+            this.customData = new CustomData();
         }
-        return this.customEntityData;
+        return this.customData;
+    }
+
+    public final NBTTagCompound getEntityData() {
+        return getCustomData().get();
     }
 
     public final NBTTagCompound getSpongeData() {
-        final NBTTagCompound customEntityData = getEntityData();
+        return getCustomData().getSpongeData();
+    }
 
-        if (!customEntityData.hasKey("SpongeData", 10)) {
-            customEntityData.setTag("SpongeData", new NBTTagCompound());
-        }
-        return customEntityData.getCompoundTag("SpongeData");
+    @Override
+    @Nullable
+    public EntityGrid.Cell getGridCell() {
+        return this.gridCell;
+    }
+
+    @Override
+    public int getGridIndex() {
+        return this.gridIndex;
+    }
+
+    @Override
+    public void setGridCell(@Nullable EntityGrid.Cell cell, int index) {
+        this.gridCell = cell;
+        this.gridIndex = index;
+    }
+
+    @Override
+    public long getActivatedTick() {
+        return this.activatedTick;
+    }
+
+    @Override
+    public void setActivatedTick(long tick) {
+        this.activatedTick = tick;
+    }
+
+    @Override
+    public void inactiveTick() {
     }
 
 }
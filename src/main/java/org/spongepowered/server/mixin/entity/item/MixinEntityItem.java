@@ -0,0 +1,81 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.mixin.entity.item;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.world.World;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.server.entity.EntityMerger;
+import org.spongepowered.server.interfaces.IMixinEntity;
+import org.spongepowered.server.interfaces.IMixinEntityItem;
+import org.spongepowered.server.interfaces.IMixinWorldServer;
+
+@Mixin(EntityItem.class)
+public abstract class MixinEntityItem extends Entity implements IMixinEntity, IMixinEntityItem {
+
+    @Shadow private int age;
+    @Shadow private int delayBeforeCanPickup;
+
+    @Shadow private boolean combineItems(EntityItem other) {
+        return false;
+    }
+
+    public MixinEntityItem(World world) {
+        super(world);
+    }
+
+    @Override
+    public void inactiveTick() {
+        if (this.delayBeforeCanPickup > 0 && this.delayBeforeCanPickup != 32767) {
+            --this.delayBeforeCanPickup;
+        }
+        if (this.age != -32768) {
+            ++this.age;
+        }
+        if (this.age >= 6000) {
+            this.setDead();
+        }
+    }
+
+    @Override
+    public boolean combineWith(EntityItem other) {
+        return combineItems(other);
+    }
+
+    @Inject(method = "searchForOtherItemsNearby", at = @At("HEAD"), cancellable = true)
+    private void onSearchForOtherItemsNearby(CallbackInfo ci) {
+        final EntityMerger merger = ((IMixinWorldServer) this.worldObj).getEntityMerger();
+        if (merger.isEnabled()) {
+            merger.merge(this);
+            ci.cancel();
+        }
+    }
+
+}
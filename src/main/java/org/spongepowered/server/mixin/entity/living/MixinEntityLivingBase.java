@@ -48,9 +48,12 @@
 import org.spongepowered.common.interfaces.entity.IMixinEntity;
 import org.spongepowered.common.text.SpongeTexts;
 import org.spongepowered.common.util.StaticMixinHelper;
+import org.spongepowered.server.VanillaHooks;
 
 import java.util.Optional;
 
+import javax.annotation.Nullable;
+
 @Mixin(EntityLivingBase.class)
 public abstract class MixinEntityLivingBase extends Entity {
 
@@ -66,20 +69,31 @@ private void callDestructEntityLivingBase(DamageSource source, CallbackInfo ci)
     }
 
     protected void callDestructEntityEventDeath(DamageSource source, CallbackInfo ci) {
-        MessageChannel originalChannel = this instanceof Player ? ((Player) this).getMessageChannel() : MessageChannel.TO_NONE;
-        Optional<Text> deathMessage = Optional.of(SpongeTexts.toText(getCombatTracker().getDeathMessage()));
-
-        Optional<User> sourceCreator = Optional.empty();
+        final MessageChannel originalChannel = this instanceof Player ? ((Player) this).getMessageChannel() : MessageChannel.TO_NONE;
 
-        Cause cause;
+        NamedCause owner = null;
         if (source instanceof EntityDamageSource) {
-            EntityDamageSource damageSource = (EntityDamageSource) source;
-            IMixinEntity spongeEntity = (IMixinEntity) damageSource.getSourceOfDamage();
-            sourceCreator = spongeEntity.getTrackedPlayer(NbtDataUtil.SPONGE_ENTITY_CREATOR);
+            IMixinEntity spongeEntity = (IMixinEntity) ((EntityDamageSource) source).getSourceOfDamage();
+            Optional<User> sourceCreator = spongeEntity.getTrackedPlayer(NbtDataUtil.SPONGE_ENTITY_CREATOR);
+            if (sourceCreator.isPresent()) {
+                owner = NamedCause.owner(sourceCreator.get());
+            }
         }
 
-        if (sourceCreator.isPresent()) {
-            cause = Cause.of(NamedCause.source(source), NamedCause.of("Victim", this), NamedCause.owner(sourceCreator.get()));
+        if (!VanillaHooks.hasListeners(DestructEntityEvent.Death.class)) {
+            if (originalChannel != MessageChannel.TO_NONE) {
+                VanillaHooks.sendMessage(originalChannel, createDeathMessage());
+            }
+            storeDropCause(source, owner);
+            return;
+        }
+
+        // Listeners may send the message to another channel, so it is always available to them
+        final Optional<Text> deathMessage = Optional.of(createDeathMessage());
+
+        final Cause cause;
+        if (owner != null) {
+            cause = Cause.of(NamedCause.source(source), NamedCause.of("Victim", this), owner);
         } else {
             cause = Cause.of(NamedCause.source(source), NamedCause.of("Victim", this));
         }
@@ -87,14 +101,21 @@ protected void callDestructEntityEventDeath(DamageSource source, CallbackInfo ci
         DestructEntityEvent.Death event = SpongeEventFactory.createDestructEntityEventDeath(cause, originalChannel, Optional.of(originalChannel),
                 deathMessage, deathMessage, (Living) this);
         if (!SpongeImpl.postEvent(event)) {
-            event.getMessage().ifPresent(text -> event.getChannel().ifPresent(channel -> channel.send(text)));
+            event.getMessage().ifPresent(text -> event.getChannel().ifPresent(channel -> VanillaHooks.sendMessage(channel, text)));
+            storeDropCause(source, owner);
+        }
+    }
 
-            // Store cause for drop event which is called after this event
-            if (sourceCreator.isPresent()) {
-                StaticMixinHelper.dropCause = Cause.of(NamedCause.source(this), NamedCause.of("Attacker", source), NamedCause.owner(sourceCreator.get()));
-            } else {
-                StaticMixinHelper.dropCause = Cause.of(NamedCause.source(this), NamedCause.of("Attacker", source));
-            }
+    private Text createDeathMessage() {
+        return SpongeTexts.toText(getCombatTracker().getDeathMessage());
+    }
+
+    private void storeDropCause(DamageSource source, @Nullable NamedCause owner) {
+        // Store cause for drop event which is called after this event
+        if (owner != null) {
+            StaticMixinHelper.dropCause = Cause.of(NamedCause.source(this), NamedCause.of("Attacker", source), owner);
+        } else {
+            StaticMixinHelper.dropCause = Cause.of(NamedCause.source(this), NamedCause.of("Attacker", source));
         }
     }
 
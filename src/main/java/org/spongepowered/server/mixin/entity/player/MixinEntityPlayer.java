@@ -25,12 +25,10 @@
 package org.spongepowered.server.mixin.entity.player;
 
 import com.flowpowered.math.vector.Vector3d;
-import com.google.common.collect.Maps;
 import net.minecraft.entity.EntityLivingBase;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.InventoryPlayer;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.nbt.NBTTagList;
 import net.minecraft.util.BlockPos;
 import net.minecraft.world.World;
 import org.spongepowered.api.block.BlockSnapshot;
@@ -56,20 +54,21 @@
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.util.VecHelper;
+import org.spongepowered.server.VanillaHooks;
+import org.spongepowered.server.entity.player.SpawnPoints;
+import org.spongepowered.server.event.NotificationDispatcher;
+import org.spongepowered.server.event.notification.SleepFinishNotification;
 import org.spongepowered.server.interfaces.IMixinEntityPlayer;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 
 import javax.annotation.Nullable;
 
 @Mixin(value = EntityPlayer.class, priority = 1001)
-public abstract class MixinEntityPlayer extends EntityLivingBase implements Entity {
+public abstract class MixinEntityPlayer extends EntityLivingBase implements Entity, IMixinEntityPlayer {
     private static final String PERSISTED_NBT_TAG = "PlayerPersisted";
 
-    private HashMap<Integer, BlockPos> spawnChunkMap = Maps.newHashMap();
-    private HashMap<Integer, Boolean> spawnForcedMap = Maps.newHashMap();
+    private SpawnPoints spawnPoints = new SpawnPoints();
 
     @Shadow public BlockPos playerLocation;
     @Shadow protected BlockPos spawnChunk;
@@ -107,8 +106,7 @@ public void onSetSpawnPoint(BlockPos pos, boolean forced, CallbackInfo ci) {
 
     @Inject(method = "clonePlayer", at = @At("RETURN"))
     public void onClonePlayerEnd(EntityPlayer oldPlayer, boolean respawnFromEnd, CallbackInfo ci) {
-        this.spawnChunkMap = ((IMixinEntityPlayer) oldPlayer).getSpawnChunkMap();
-        this.spawnForcedMap = ((IMixinEntityPlayer) oldPlayer).getSpawnForcedMap();
+        this.spawnPoints = ((IMixinEntityPlayer) oldPlayer).getSpawnPoints();
 
         final NBTTagCompound old = ((IMixinEntityPlayer) oldPlayer).getEntityData();
         if (old.hasKey(PERSISTED_NBT_TAG)) {
@@ -119,42 +117,22 @@ public void onClonePlayerEnd(EntityPlayer oldPlayer, boolean respawnFromEnd, Cal
     @Inject(method = "readEntityFromNBT", at = @At(value = "FIELD", target = "net.minecraft.entity.player.EntityPlayer"
             + ".foodStats:Lnet/minecraft/util/FoodStats;"))
     public void onReadEntityFromNBT(NBTTagCompound tagCompound, CallbackInfo ci) {
-        final NBTTagList spawnlist = tagCompound.getTagList("Spawns", 10);
-        for (int i = 0; i < spawnlist.tagCount(); i++) {
-            final NBTTagCompound spawndata = spawnlist.getCompoundTagAt(i);
-            int spawndim = spawndata.getInteger("Dim");
-            this.spawnChunkMap.put(spawndim, new BlockPos(spawndata.getInteger("SpawnX"), spawndata.getInteger("SpawnY"), spawndata.getInteger("SpawnZ")));
-            this.spawnForcedMap.put(spawndim, spawndata.getBoolean("SpawnForced"));
-        }
+        this.spawnPoints.readFromNBT(tagCompound);
     }
 
     @Inject(method = "writeEntityToNBT", at = @At(value = "FIELD", target = "net.minecraft.entity.player.EntityPlayer"
             + ".foodStats:Lnet/minecraft/util/FoodStats;"))
     public void onWriteEntityToNBT(NBTTagCompound tagCompound, CallbackInfo ci) {
-        final NBTTagList spawnlist = new NBTTagList();
-        for (Map.Entry<Integer, BlockPos> entry : this.spawnChunkMap.entrySet()) {
-            BlockPos spawn = entry.getValue();
-            if (spawn == null) {
-                continue;
-            }
-            Boolean forced = this.spawnForcedMap.get(entry.getKey());
-            if (forced == null) {
-                forced = false;
-            }
-            NBTTagCompound spawndata = new NBTTagCompound();
-            spawndata.setInteger("Dim", entry.getKey());
-            spawndata.setInteger("SpawnX", spawn.getX());
-            spawndata.setInteger("SpawnY", spawn.getY());
-            spawndata.setInteger("SpawnZ", spawn.getZ());
-            spawndata.setBoolean("SpawnForced", forced);
-            spawnlist.appendTag(spawndata);
-        }
-        tagCompound.setTag("Spawns", spawnlist);
+        this.spawnPoints.writeToNBT(tagCompound);
     }
 
     @Inject(method = "interactWith", at = @At(value = "INVOKE", target = "net/minecraft/entity/player/EntityPlayer"
             + ".getCurrentEquippedItem()Lnet/minecraft/item/ItemStack;"), cancellable = true)
     public void onInteractWith(net.minecraft.entity.Entity entity, CallbackInfoReturnable<Boolean> cir) {
+        if (!VanillaHooks.hasListeners(InteractEntityEvent.Secondary.class)) {
+            return;
+        }
+
         InteractEntityEvent.Secondary event = SpongeEventFactory.createInteractEntityEventSecondary(Cause.of(NamedCause.source(this)),
                 Optional.empty(), (Entity) entity);
         if (SpongeImpl.postEvent(event)) {
@@ -162,9 +140,22 @@ public void onInteractWith(net.minecraft.entity.Entity entity, CallbackInfoRetur
         }
     }
 
+    // The snapshot of the item in use, reused while the stack is equal to the copy it was created from
+    @Nullable private net.minecraft.item.ItemStack snapshotStack;
+    @Nullable private ItemStackSnapshot itemSnapshot;
+
+    private ItemStackSnapshot createSnapshot(net.minecraft.item.ItemStack stack) {
+        if (this.itemSnapshot == null || !net.minecraft.item.ItemStack.areItemStacksEqual(stack, this.snapshotStack)) {
+            this.snapshotStack = stack.copy();
+            this.itemSnapshot = ((ItemStack) stack).createSnapshot();
+        }
+        return this.itemSnapshot;
+    }
+
     private Transaction<ItemStackSnapshot> createTransaction(net.minecraft.item.ItemStack stack) {
-        ItemStackSnapshot itemSnapshot = ((ItemStack) stack).createSnapshot();
-        return new Transaction<>(itemSnapshot, itemSnapshot.copy());
+        // Snapshots are immutable, so both sides of the transaction can share one
+        final ItemStackSnapshot itemSnapshot = createSnapshot(stack);
+        return new Transaction<>(itemSnapshot, itemSnapshot);
     }
 
     @Inject(method = "setItemInUse", at = @At(value = "FIELD", target = "Lnet/minecraft/entity/player/EntityPlayer;itemInUse:Lnet/minecraft/item/ItemStack;", opcode = Opcodes.PUTFIELD), cancellable = true)
@@ -172,6 +163,16 @@ public void onSetItemInUse(net.minecraft.item.ItemStack stack, int duration, Cal
         // Handle logic on our own
         ci.cancel();
 
+        if (!VanillaHooks.hasListeners(UseItemStackEvent.Start.class)) {
+            this.itemInUse = stack;
+            this.itemInUseCount = duration;
+
+            if (!this.worldObj.isRemote) {
+                this.setEating(true);
+            }
+            return;
+        }
+
         UseItemStackEvent.Start event = SpongeEventFactory.createUseItemStackEventStart(Cause.of(NamedCause.source(this)), duration, duration,
                 createTransaction(stack));
 
@@ -187,10 +188,12 @@ public void onSetItemInUse(net.minecraft.item.ItemStack stack, int duration, Cal
 
     @Inject(method = "onUpdate", at = @At(value = "FIELD", target = "Lnet/minecraft/entity/player/EntityPlayer;itemInUseCount:I", opcode = Opcodes.GETFIELD))
     public void callUseItemStackTick(CallbackInfo ci) {
-        UseItemStackEvent.Tick event = SpongeEventFactory.createUseItemStackEventTick(Cause.of(NamedCause.source(this)),
-                this.itemInUseCount, this.itemInUseCount, createTransaction(this.itemInUse));
+        if (VanillaHooks.hasListeners(UseItemStackEvent.Tick.class)) {
+            UseItemStackEvent.Tick event = SpongeEventFactory.createUseItemStackEventTick(Cause.of(NamedCause.source(this)),
+                    this.itemInUseCount, this.itemInUseCount, createTransaction(this.itemInUse));
 
-        this.itemInUseCount = SpongeImpl.postEvent(event) ? -1 : event.getRemainingDuration();
+            this.itemInUseCount = SpongeImpl.postEvent(event) ? -1 : event.getRemainingDuration();
+        }
         if (this.itemInUseCount <= 0) {
             onItemUseFinish();
         }
@@ -199,6 +202,11 @@ public void callUseItemStackTick(CallbackInfo ci) {
     @Redirect(method = "stopUsingItem", at = @At(value = "INVOKE", target = "Lnet/minecraft/item/ItemStack;onPlayerStoppedUsing"
             + "(Lnet/minecraft/world/World;Lnet/minecraft/entity/player/EntityPlayer;I)V"))
     public void callUseItemStackStop(net.minecraft.item.ItemStack stack, World world, EntityPlayer player, int remainingDuration) {
+        if (!VanillaHooks.hasListeners(UseItemStackEvent.Stop.class)) {
+            stack.onPlayerStoppedUsing(world, player, remainingDuration);
+            return;
+        }
+
         UseItemStackEvent.Stop event = SpongeEventFactory.createUseItemStackEventStop(Cause.of(NamedCause.source(this)),
                 this.itemInUseCount, this.itemInUseCount, createTransaction(stack));
 
@@ -211,7 +219,11 @@ public void callUseItemStackStop(net.minecraft.item.ItemStack stack, World world
             + "(Lnet/minecraft/world/World;Lnet/minecraft/entity/player/EntityPlayer;)Lnet/minecraft/item/ItemStack;"))
     public net.minecraft.item.ItemStack callUseItemStackFinish(net.minecraft.item.ItemStack stack, World world, EntityPlayer player) {
         net.minecraft.item.ItemStack result = stack.onItemUseFinish(world, player);
-        Transaction<ItemStackSnapshot> resultTransaction = new Transaction<>(((ItemStack) stack).createSnapshot(),
+        if (!VanillaHooks.hasListeners(UseItemStackEvent.Finish.class)) {
+            return result;
+        }
+
+        Transaction<ItemStackSnapshot> resultTransaction = new Transaction<>(createSnapshot(stack),
                 ((ItemStack) result).createSnapshot());
 
         UseItemStackEvent.Finish event = SpongeEventFactory.createUseItemStackEventFinish(Cause.of(NamedCause.source(this)),
@@ -224,6 +236,10 @@ public net.minecraft.item.ItemStack callUseItemStackFinish(net.minecraft.item.It
 
     @Inject(method = "trySleep", at = @At("HEAD"), cancellable = true)
     public void onTrySleep(BlockPos bedPos, CallbackInfoReturnable<EntityPlayer.EnumStatus> ci) {
+        if (!VanillaHooks.hasListeners(SleepingEvent.Pre.class)) {
+            return;
+        }
+
         SleepingEvent.Pre event = SpongeEventFactory.createSleepingEventPre(Cause.of(NamedCause.source(this)),
                 ((org.spongepowered.api.world.World) this.worldObj).createSnapshot(bedPos.getX(), bedPos.getY(), bedPos.getZ()), this);
         if (SpongeImpl.postEvent(event)) {
@@ -253,6 +269,14 @@ private void onWakeUpPlayerSetPosition(EntityPlayer self, double x, double y, do
     @Inject(method = "wakeUpPlayer", at = @At(value = "FIELD", target = "Lnet/minecraft/entity/player/EntityPlayer;sleeping:Z" ,
             opcode = Opcodes.PUTFIELD), cancellable = true)
     private void onWakeUpPlayer(boolean immediately, boolean updateWorldFlag, boolean setSpawn, CallbackInfo ci) {
+        if (!VanillaHooks.hasListeners(SleepingEvent.Post.class)) {
+            this.setSize(this.wakeUpWidth, this.wakeUpHeight);
+            if (this.newLocation != null) {
+                this.setTransform(this.newLocation);
+            }
+            return;
+        }
+
         this.bed = getWorld().createSnapshot(VecHelper.toVector(this.playerLocation));
         SleepingEvent.Post event = SpongeEventFactory.createSleepingEventPost(Cause.of(NamedCause.source(this)), this.bed,
                 Optional.ofNullable(this.newLocation), this, setSpawn);
@@ -274,7 +298,18 @@ private void onWakeUpPlayer(boolean immediately, boolean updateWorldFlag, boolea
     @Inject(method = "wakeUpPlayer", at = @At(value = "FIELD", target = "Lnet/minecraft/entity/player/EntityPlayer;sleepTimer:I",
             opcode = Opcodes.PUTFIELD, shift = At.Shift.AFTER), cancellable = true)
     private void onWakeUpPlayerFinish(boolean immediately, boolean updateWorldFlag, boolean setSpawn, CallbackInfo ci) {
-        SpongeImpl.postEvent(SpongeEventFactory.createSleepingEventFinish(Cause.of(NamedCause.source(this)), this.bed, this));
+        if (VanillaHooks.hasListeners(SleepingEvent.Finish.class)) {
+            if (this.bed == null) {
+                this.bed = getWorld().createSnapshot(VecHelper.toVector(this.playerLocation));
+            }
+            SpongeImpl.postEvent(SpongeEventFactory.createSleepingEventFinish(Cause.of(NamedCause.source(this)), this.bed, this));
+        }
+
+        final NotificationDispatcher notifications = VanillaHooks.getNotifications();
+        if (notifications.hasListeners(SleepFinishNotification.class)) {
+            notifications.post(new SleepFinishNotification(getUniqueID(), getWorld().getUniqueId(),
+                    this.playerLocation != null ? VecHelper.toVector(this.playerLocation) : null));
+        }
         if (setSpawn) {
             this.setSpawnPoint(this.newLocation != null ? VecHelper.toBlockPos(this.newLocation.getPosition()) : this.playerLocation, false);
         }
@@ -284,6 +319,11 @@ private void onWakeUpPlayerFinish(boolean immediately, boolean updateWorldFlag,
         ci.cancel();
     }
 
+    @Override
+    public SpawnPoints getSpawnPoints() {
+        return this.spawnPoints;
+    }
+
     public void setSpawnChunk(BlockPos pos, boolean forced, int dimension) {
         if (dimension == 0) {
             if (pos != null) {
@@ -297,23 +337,20 @@ public void setSpawnChunk(BlockPos pos, boolean forced, int dimension) {
         }
 
         if (pos != null) {
-            this.spawnChunkMap.put(dimension, pos);
-            this.spawnForcedMap.put(dimension, forced);
+            this.spawnPoints.put(dimension, pos, forced);
         } else {
-            this.spawnChunkMap.remove(dimension);
-            this.spawnForcedMap.remove(dimension);
+            this.spawnPoints.remove(dimension);
         }
     }
 
     public BlockPos getBedLocation(int dimension) {
-        return dimension == 0 ? this.spawnChunk : this.spawnChunkMap.get(dimension);
+        return dimension == 0 ? this.spawnChunk : this.spawnPoints.get(dimension);
     }
 
     public boolean isSpawnForced(int dimension) {
         if (this.dimension == 0) {
             return this.spawnForced;
         }
-        final Boolean forced = this.spawnForcedMap.get(dimension);
-        return forced == null ? false : forced;
+        return this.spawnPoints.isForced(dimension);
     }
 }
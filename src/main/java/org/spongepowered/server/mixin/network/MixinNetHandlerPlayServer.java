@@ -25,19 +25,26 @@
 package org.spongepowered.server.mixin.network;
 
 import com.flowpowered.math.vector.Vector3d;
+import io.netty.buffer.ByteBuf;
 import net.minecraft.block.BlockDoor;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.init.Blocks;
+import net.minecraft.inventory.Slot;
 import net.minecraft.item.ItemDoor;
 import net.minecraft.item.ItemDoublePlant;
 import net.minecraft.item.ItemStack;
 import net.minecraft.network.NetHandlerPlayServer;
+import net.minecraft.network.Packet;
 import net.minecraft.network.play.INetHandlerPlayServer;
 import net.minecraft.network.play.client.C01PacketChatMessage;
+import net.minecraft.network.play.client.C07PacketPlayerDigging;
+import net.minecraft.network.play.client.C08PacketPlayerBlockPlacement;
+import net.minecraft.network.play.client.C17PacketCustomPayload;
 import net.minecraft.network.play.server.S23PacketBlockChange;
 import net.minecraft.network.play.server.S2EPacketCloseWindow;
+import net.minecraft.network.play.server.S2FPacketSetSlot;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.management.ItemInWorldManager;
 import net.minecraft.server.management.ServerConfigurationManager;
@@ -47,7 +54,6 @@
 import net.minecraft.util.IChatComponent;
 import net.minecraft.world.World;
 import org.spongepowered.api.block.BlockSnapshot;
-import org.spongepowered.api.block.BlockTypes;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.event.SpongeEventFactory;
 import org.spongepowered.api.event.block.InteractBlockEvent;
@@ -55,6 +61,7 @@
 import org.spongepowered.api.event.cause.NamedCause;
 import org.spongepowered.api.event.message.MessageChannelEvent;
 import org.spongepowered.api.event.network.ClientConnectionEvent;
+import org.spongepowered.api.network.RemoteConnection;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.channel.MessageChannel;
 import org.spongepowered.api.util.Direction;
@@ -68,29 +75,162 @@
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.registry.provider.DirectionFacingProvider;
 import org.spongepowered.common.text.SpongeTexts;
+import org.spongepowered.server.VanillaHooks;
+import org.spongepowered.server.interfaces.IMixinNetHandlerPlayServer;
+import org.spongepowered.server.interfaces.IMixinWorldServer;
+import org.spongepowered.server.network.NetworkConfig;
+import org.spongepowered.server.network.PacketRateLimiter;
+import org.spongepowered.server.network.VanillaChannelBinding;
+import org.spongepowered.server.network.VanillaChannelRegistrar;
+import org.spongepowered.server.network.VanillaIndexedMessageChannel;
+import org.spongepowered.server.util.HitOffsets;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nullable;
 
 @Mixin(value = NetHandlerPlayServer.class, priority = 1001)
-public abstract class MixinNetHandlerPlayServer implements INetHandlerPlayServer {
+public abstract class MixinNetHandlerPlayServer implements INetHandlerPlayServer, IMixinNetHandlerPlayServer {
 
     @Shadow private EntityPlayerMP playerEntity;
     @Shadow private MinecraftServer serverController;
 
+    @Shadow public abstract void kickPlayerFromServer(String reason);
+
     private boolean forceUpdateInventorySlot;
 
+    private final Queue<Packet> queuedPackets = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedPacketCount = new AtomicInteger();
+    private volatile boolean flooded;
+    private final PacketRateLimiter rateLimiter = new PacketRateLimiter();
+    private volatile boolean messageBatches;
+
+    @Override
+    public PacketRateLimiter getRateLimiter() {
+        return this.rateLimiter;
+    }
+
+    @Override
+    public boolean supportsMessageBatches() {
+        return this.messageBatches;
+    }
+
+    @Override
+    public void queuePacket(Packet packet) {
+        if (this.flooded) {
+            return;
+        }
+
+        if (this.queuedPacketCount.incrementAndGet() > NetworkConfig.getInstance().getMaxQueuedPackets()) {
+            // Stop queueing, the player is kicked on the main thread
+            this.flooded = true;
+            return;
+        }
+        this.queuedPackets.add(packet);
+    }
+
+    @Override
+    public void processQueuedPackets() {
+        if (this.flooded) {
+            this.queuedPackets.clear();
+            this.queuedPacketCount.set(0);
+            SpongeImpl.getLogger().warn("{} sent too many packets and was kicked", this.playerEntity.getName());
+            kickPlayerFromServer("Too many packets");
+            return;
+        }
+
+        final int max = NetworkConfig.getInstance().getMaxPacketsPerTick();
+        final long now = System.nanoTime();
+        Packet packet;
+        for (int i = 0; i < max && (packet = this.queuedPackets.peek()) != null; i++) {
+            final boolean allowed = this.rateLimiter.tryAcquire(packet, now);
+            if (!allowed && this.rateLimiter.isDeferring()) {
+                // Keep the order of the packets, continue in the next tick
+                break;
+            }
+
+            this.queuedPackets.poll();
+            this.queuedPacketCount.decrementAndGet();
+            if (!allowed) {
+                resyncDroppedPacket(packet);
+                continue;
+            }
+
+            try {
+                packet.processPacket(this);
+            } catch (Throwable e) {
+                SpongeImpl.getLogger().error("Could not process packet {} from {}", packet.getClass().getSimpleName(), this.playerEntity.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Reverts what the client predicted for a packet that was dropped by the
+     * rate limiter, like vanilla does for interactions it rejects.
+     */
+    private void resyncDroppedPacket(Packet packet) {
+        final World world = this.playerEntity.worldObj;
+        if (packet instanceof C08PacketPlayerBlockPlacement) {
+            final C08PacketPlayerBlockPlacement placement = (C08PacketPlayerBlockPlacement) packet;
+            // 255 is sent when using the item in the air
+            if (placement.getPlacedBlockDirection() != 255) {
+                final BlockPos pos = placement.getPosition();
+                this.playerEntity.playerNetServerHandler.sendPacket(new S23PacketBlockChange(world, pos));
+                this.playerEntity.playerNetServerHandler.sendPacket(new S23PacketBlockChange(world,
+                        pos.offset(EnumFacing.getFront(placement.getPlacedBlockDirection()))));
+            }
+            resyncHeldItem();
+        } else if (packet instanceof C07PacketPlayerDigging) {
+            final C07PacketPlayerDigging digging = (C07PacketPlayerDigging) packet;
+            switch (digging.getStatus()) {
+                case START_DESTROY_BLOCK:
+                case ABORT_DESTROY_BLOCK:
+                case STOP_DESTROY_BLOCK:
+                    this.playerEntity.playerNetServerHandler.sendPacket(new S23PacketBlockChange(world, digging.getPosition()));
+                    break;
+                case DROP_ITEM:
+                case DROP_ALL_ITEMS:
+                    resyncHeldItem();
+                    break;
+                case RELEASE_USE_ITEM:
+                    // The client stopped using the item already
+                    this.playerEntity.clearItemInUse();
+                    resyncHeldItem();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void resyncHeldItem() {
+        final Slot slot = this.playerEntity.openContainer.getSlotFromInventory(this.playerEntity.inventory,
+                this.playerEntity.inventory.currentItem);
+        if (slot != null) {
+            this.playerEntity.playerNetServerHandler.sendPacket(new S2FPacketSetSlot(this.playerEntity.openContainer.windowId,
+                    slot.slotNumber, this.playerEntity.inventory.getCurrentItem()));
+        }
+    }
+
     @Inject(method = "processChatMessage", at = @At(value = "INVOKE",
             target = "Lnet/minecraft/server/management/ServerConfigurationManager;sendChatMsgImpl(Lnet/minecraft/util/IChatComponent;Z)V"),
             cancellable = true, locals = LocalCapture.CAPTURE_FAILHARD)
     public void onProcessChatMessa(C01PacketChatMessage packet, CallbackInfo ci, String s, ChatComponentTranslation component) {
         final Optional<Text> message = Optional.ofNullable(SpongeTexts.toText(component));
         final MessageChannel originalChannel = ((Player) this.playerEntity).getMessageChannel();
+        if (!VanillaHooks.hasListeners(MessageChannelEvent.Chat.class)) {
+            message.ifPresent(text -> VanillaHooks.sendMessage(originalChannel, text));
+            return;
+        }
+
         final MessageChannelEvent.Chat event = SpongeEventFactory.createMessageChannelEventChat(Cause.of(NamedCause.source(this.playerEntity)),
                 originalChannel, Optional.of(originalChannel), message,  message, Text.of(s));
         if (!SpongeImpl.postEvent(event)) {
-            event.getMessage().ifPresent(text -> event.getChannel().ifPresent(channel -> channel.send(text)));
+            event.getMessage().ifPresent(text -> event.getChannel().ifPresent(channel -> VanillaHooks.sendMessage(channel, text)));
         } else {
             ci.cancel();
         }
@@ -108,19 +248,54 @@ public void onDisconnectHandler(ServerConfigurationManager this$0, IChatComponen
         final Player player = ((Player) this.playerEntity);
         final Optional<Text> message = Optional.ofNullable(SpongeTexts.toText(component));
         final MessageChannel originalChannel = player.getMessageChannel();
+        if (!VanillaHooks.hasListeners(ClientConnectionEvent.Disconnect.class)) {
+            message.ifPresent(text -> VanillaHooks.sendMessage(originalChannel, text));
+            return;
+        }
+
         final ClientConnectionEvent.Disconnect event = SpongeEventFactory.createClientConnectionEventDisconnect(
                 Cause.of(NamedCause.source(player)), originalChannel, Optional.of(originalChannel), message, message, player);
         SpongeImpl.postEvent(event);
-        event.getMessage().ifPresent(text -> event.getChannel().ifPresent(channel -> channel.send(text)));
+        event.getMessage().ifPresent(text -> event.getChannel().ifPresent(channel -> VanillaHooks.sendMessage(channel, text)));
+    }
+
+    @Inject(method = "processVanilla250Packet", at = @At("HEAD"), cancellable = true)
+    private void onProcessCustomPayload(C17PacketCustomPayload packet, CallbackInfo ci) {
+        final boolean register = packet.getChannelName().equals("REGISTER");
+        if (register || packet.getChannelName().equals("UNREGISTER")) {
+            final ByteBuf data = packet.getBufferData();
+            for (String name : data.toString(data.readerIndex(), data.readableBytes(), StandardCharsets.UTF_8).split("\0")) {
+                if (name.equals(VanillaIndexedMessageChannel.BATCH_CHANNEL)) {
+                    this.messageBatches = register;
+                }
+            }
+            return;
+        }
+
+        // Still on the network thread, plugin channels are handled here without scheduling them on the main thread
+        final VanillaChannelBinding channel =
+                ((VanillaChannelRegistrar) SpongeImpl.getGame().getChannelRegistrar()).getChannel(packet.getChannelName());
+        if (channel != null) {
+            try {
+                channel.handlePayload((RemoteConnection) this, packet.getBufferData());
+            } finally {
+                packet.getBufferData().release();
+            }
+            ci.cancel();
+        }
     }
 
     @Redirect(method = "processPlayerBlockPlacement", at = @At(value = "INVOKE",
             target = "Lnet/minecraft/server/management/ItemInWorldManager;tryUseItem(Lnet/minecraft/entity/player/EntityPlayer;"
                     + "Lnet/minecraft/world/World;Lnet/minecraft/item/ItemStack;)Z"))
     public boolean tryUseItem(ItemInWorldManager itemInWorldManager, EntityPlayer player, World world, ItemStack stack) {
+        if (!VanillaHooks.hasListeners(InteractBlockEvent.Secondary.class)) {
+            return itemInWorldManager.tryUseItem(player, world, stack);
+        }
+
         // TODO: Forge passes (0,0,0) as block when interacting with the air
         //BlockRayHit<World> blockHit = BlockRay.from((Entity) player).filter(BlockRay.<World>onlyAirFilter()).end().get();
-        BlockSnapshot block = ((org.spongepowered.api.world.World) world).createSnapshot(0, 0, 0).withState(BlockTypes.AIR.getDefaultState());
+        BlockSnapshot block = ((IMixinWorldServer) world).getAirSnapshot();
 
         InteractBlockEvent.Secondary event = SpongeEventFactory.createInteractBlockEventSecondary(Cause.of(NamedCause.source(player)),
                 Optional.<Vector3d>empty(), block, Direction.NONE); // TODO: Pass direction? (Forge doesn't)
@@ -132,10 +307,8 @@ public boolean tryUseItem(ItemInWorldManager itemInWorldManager, EntityPlayer pl
                     + "Lnet/minecraft/world/World;Lnet/minecraft/item/ItemStack;Lnet/minecraft/util/BlockPos;Lnet/minecraft/util/EnumFacing;FFF)Z"))
     public boolean onActivateBlockOrUseItem(ItemInWorldManager itemInWorldManager, EntityPlayer player, World world,
             @Nullable ItemStack stack, BlockPos pos, EnumFacing side, float offsetX, float offsetY, float offsetZ) {
-        BlockSnapshot currentSnapshot = ((org.spongepowered.api.world.World) world).createSnapshot(pos.getX(), pos.getY(), pos.getZ());
-        InteractBlockEvent.Secondary event = SpongeEventFactory.createInteractBlockEventSecondary(Cause.of(NamedCause.source(player)),
-                Optional.of(new Vector3d(offsetX, offsetY, offsetZ)), currentSnapshot, DirectionFacingProvider.getInstance().getKey(side).get());
-        if (SpongeImpl.postEvent(event)) {
+        if (VanillaHooks.hasListeners(InteractBlockEvent.Secondary.class) && callInteractBlockEventSecondary(player, world, pos, side,
+                offsetX, offsetY, offsetZ)) {
             final IBlockState state = world.getBlockState(pos);
 
             if (state.getBlock() == Blocks.command_block) {
@@ -172,6 +345,14 @@ public boolean onActivateBlockOrUseItem(ItemInWorldManager itemInWorldManager, E
                 || itemInWorldManager.tryUseItem(player, world, stack);
     }
 
+    private static boolean callInteractBlockEventSecondary(EntityPlayer player, World world, BlockPos pos, EnumFacing side,
+            float offsetX, float offsetY, float offsetZ) {
+        BlockSnapshot currentSnapshot = ((org.spongepowered.api.world.World) world).createSnapshot(pos.getX(), pos.getY(), pos.getZ());
+        InteractBlockEvent.Secondary event = SpongeEventFactory.createInteractBlockEventSecondary(Cause.of(NamedCause.source(player)),
+                HitOffsets.of(offsetX, offsetY, offsetZ), currentSnapshot, DirectionFacingProvider.getInstance().getKey(side).get());
+        return SpongeImpl.postEvent(event);
+    }
+
     @Redirect(method = "processPlayerBlockPlacement", at = @At(value = "INVOKE", target = "Lnet/minecraft/item/ItemStack;areItemStacksEqual"
             + "(Lnet/minecraft/item/ItemStack;Lnet/minecraft/item/ItemStack;)Z"))
     public boolean onAreItemStacksEqual(ItemStack stackA, ItemStack stackB) {
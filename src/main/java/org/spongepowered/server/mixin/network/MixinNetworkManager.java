@@ -0,0 +1,175 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.mixin.network;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.GenericFutureListener;
+import net.minecraft.network.EnumConnectionState;
+import net.minecraft.network.NettyCompressionEncoder;
+import net.minecraft.network.NetworkManager;
+import net.minecraft.network.Packet;
+import net.minecraft.network.play.server.S00PacketKeepAlive;
+import net.minecraft.network.play.server.S40PacketDisconnect;
+import net.minecraft.util.IChatComponent;
+import org.apache.logging.log4j.Logger;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Overwrite;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.server.interfaces.IMixinNetworkManager;
+import org.spongepowered.server.network.AsyncCompressionEncoder;
+import org.spongepowered.server.network.NetworkConfig;
+import org.spongepowered.server.network.NetworkMetrics;
+
+import javax.annotation.Nullable;
+
+@Mixin(NetworkManager.class)
+public abstract class MixinNetworkManager implements IMixinNetworkManager {
+
+    @Shadow private static Logger logger;
+    @Shadow public static AttributeKey attrKeyConnectionState;
+
+    @Shadow private Channel channel;
+
+    @Shadow public abstract void setConnectionState(EnumConnectionState newState);
+
+    // Only modified on the event loop
+    private volatile int pendingPackets;
+
+    @Override
+    public Channel getChannel() {
+        return this.channel;
+    }
+
+    /**
+     * Flushes the channel only at the end of the tick, unless the packet
+     * needs to be sent immediately.
+     */
+    @Overwrite
+    private void dispatchPacket(final Packet inPacket, @Nullable final GenericFutureListener[] futureListeners) {
+        final EnumConnectionState state = EnumConnectionState.getFromPacket(inPacket);
+        final EnumConnectionState currentState = (EnumConnectionState) this.channel.attr(attrKeyConnectionState).get();
+
+        if (currentState != state) {
+            logger.debug("Disabled auto read");
+            this.channel.config().setAutoRead(false);
+        }
+
+        if (this.channel.eventLoop().inEventLoop()) {
+            writePacket(inPacket, futureListeners, state, currentState);
+        } else {
+            this.channel.eventLoop().execute(() -> writePacket(inPacket, futureListeners, state, currentState));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writePacket(Packet packet, @Nullable GenericFutureListener[] futureListeners, EnumConnectionState state,
+            EnumConnectionState currentState) {
+        if (state != currentState) {
+            setConnectionState(state);
+        }
+
+        final boolean flush = shouldFlush(packet, state, futureListeners != null || state != currentState);
+        final ChannelFuture future = flush ? this.channel.writeAndFlush(packet) : this.channel.write(packet);
+        if (futureListeners != null) {
+            future.addListeners(futureListeners);
+        }
+        future.addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+    }
+
+    private boolean shouldFlush(@Nullable Packet packet, EnumConnectionState state, boolean immediate) {
+        NetworkMetrics.recordPacket();
+
+        final NetworkConfig config = NetworkConfig.getInstance();
+        // Only play connections are flushed at the end of the tick, someone waits for the others,
+        // or they are latency critical
+        if (immediate || state != EnumConnectionState.PLAY || !config.isConsolidateFlushes()
+                || packet instanceof S00PacketKeepAlive || packet instanceof S40PacketDisconnect
+                || this.pendingPackets + 1 >= config.getMaxPendingPackets()) {
+            this.pendingPackets = 0;
+            NetworkMetrics.recordFlush();
+            return true;
+        }
+
+        this.pendingPackets++;
+        return false;
+    }
+
+    @Override
+    public void writeEncoded(ChannelHandlerContext context, Object packet) {
+        if (this.channel.eventLoop().inEventLoop()) {
+            writeEncodedPacket(context, packet);
+        } else {
+            this.channel.eventLoop().execute(() -> writeEncodedPacket(context, packet));
+        }
+    }
+
+    private void writeEncodedPacket(ChannelHandlerContext context, Object packet) {
+        if (shouldFlush(null, (EnumConnectionState) this.channel.attr(attrKeyConnectionState).get(), false)) {
+            context.writeAndFlush(packet);
+        } else {
+            context.write(packet);
+        }
+    }
+
+    @Override
+    public void flushOutbound() {
+        if (this.channel.eventLoop().inEventLoop()) {
+            flushPending();
+        } else {
+            // Packets sent this tick may still wait in the event loop, they are counted once they ran
+            this.channel.eventLoop().execute(this::flushPending);
+        }
+    }
+
+    private void flushPending() {
+        if (this.pendingPackets > 0) {
+            this.pendingPackets = 0;
+            NetworkMetrics.recordFlush();
+            this.channel.flush();
+        }
+    }
+
+    @Redirect(method = "setCompressionTreshold", at = @At(value = "NEW", target = "net/minecraft/network/NettyCompressionEncoder"))
+    private NettyCompressionEncoder createCompressionEncoder(int threshold) {
+        return NetworkConfig.getInstance().isAsyncCompression() ? new AsyncCompressionEncoder(threshold) : new NettyCompressionEncoder(threshold);
+    }
+
+    @Inject(method = "closeChannel", at = @At("HEAD"))
+    private void onCloseChannel(IChatComponent message, CallbackInfo ci) {
+        // Don't discard packets that were not flushed yet
+        if (this.channel.isOpen()) {
+            flushOutbound();
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.mixin.network;
+
+import net.minecraft.network.INetHandler;
+import net.minecraft.network.NetHandlerPlayServer;
+import net.minecraft.network.Packet;
+import net.minecraft.network.PacketThreadUtil;
+import net.minecraft.network.ThreadQuickExitException;
+import net.minecraft.util.IThreadListener;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Overwrite;
+import org.spongepowered.server.interfaces.IMixinNetHandlerPlayServer;
+
+@Mixin(PacketThreadUtil.class)
+public abstract class MixinPacketThreadUtil {
+
+    /**
+     * Queues play packets on the connection instead of scheduling a task on
+     * the server for every packet.
+     */
+    @Overwrite
+    public static void checkThreadAndEnqueue(final Packet packet, final INetHandler handler, IThreadListener listener) {
+        if (!listener.isCallingFromMinecraftThread()) {
+            if (handler instanceof NetHandlerPlayServer) {
+                ((IMixinNetHandlerPlayServer) handler).queuePacket(packet);
+            } else {
+                listener.addScheduledTask(() -> packet.processPacket(handler));
+            }
+            throw ThreadQuickExitException.field_179886_a;
+        }
+    }
+
+}
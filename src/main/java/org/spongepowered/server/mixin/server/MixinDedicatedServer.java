@@ -42,6 +42,7 @@
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.scheduler.SpongeScheduler;
 import org.spongepowered.server.SpongeVanilla;
+import org.spongepowered.server.VanillaHooks;
 
 import java.io.File;
 import java.net.Proxy;
@@ -87,6 +88,7 @@ public void callServerStarting(CallbackInfoReturnable<Boolean> ci) {
     @Inject(method = "updateTimeLightAndEntities", at = @At("RETURN"))
     public void onTick(CallbackInfo ci) {
         SpongeScheduler.getInstance().tickSyncScheduler();
+        VanillaHooks.flushNetwork(this);
     }
 
 }
@@ -25,6 +25,7 @@
 package org.spongepowered.server.mixin.server;
 
 import net.minecraft.crash.CrashReport;
+import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.network.NetworkSystem;
 import net.minecraft.network.ServerStatusResponse;
 import net.minecraft.network.play.server.S03PacketTimeUpdate;
@@ -42,6 +43,7 @@
 import org.spongepowered.api.event.cause.NamedCause;
 import org.spongepowered.api.event.game.state.GameStoppedServerEvent;
 import org.spongepowered.api.event.game.state.GameStoppingServerEvent;
+import org.spongepowered.api.event.world.UnloadWorldEvent;
 import org.spongepowered.api.world.World;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Overwrite;
@@ -54,6 +56,9 @@
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.text.SpongeTexts;
 import org.spongepowered.server.SpongeVanilla;
+import org.spongepowered.server.VanillaHooks;
+import org.spongepowered.server.interfaces.IMixinNetHandlerPlayServer;
+import org.spongepowered.server.network.PacketBroadcaster;
 import org.spongepowered.server.world.VanillaDimensionManager;
 
 import java.util.Hashtable;
@@ -97,7 +102,10 @@ public void onAddFaviconToStatusResponse(ServerStatusResponse response, Callback
     @Inject(method = "stopServer", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/WorldServer;flush()V"),
             locals = LocalCapture.CAPTURE_FAILHARD)
     public void callWorldUnload(CallbackInfo ci, int i, WorldServer worldserver) {
-        SpongeImpl.postEvent(SpongeEventFactory.createUnloadWorldEvent(Cause.of(NamedCause.source(this)), (World) worldserver));
+        if (VanillaHooks.hasListeners(UnloadWorldEvent.class)) {
+            SpongeImpl.postEvent(SpongeEventFactory.createUnloadWorldEvent(Cause.of(NamedCause.source(this)), (World) worldserver));
+        }
+        VanillaHooks.notifyWorldUnload(worldserver);
     }
 
     @Overwrite
@@ -115,6 +123,11 @@ public void updateTimeLightAndEntities() {
             }
         }
 
+        // Packets may respawn players, which modifies the player list
+        for (Object player : this.serverConfigManager.playerEntityList.toArray()) {
+            ((IMixinNetHandlerPlayServer) ((EntityPlayerMP) player).playerNetServerHandler).processQueuedPackets();
+        }
+
         this.theProfiler.endStartSection("levels");
         int j;
 
@@ -130,9 +143,8 @@ public void updateTimeLightAndEntities() {
 
                 if (this.tickCounter % 20 == 0) {
                     this.theProfiler.startSection("timeSync");
-                    this.serverConfigManager.sendPacketToAllPlayersInDimension(
-                            new S03PacketTimeUpdate(worldserver.getTotalWorldTime(), worldserver.getWorldTime(),
-                                    worldserver.getGameRules().getGameRuleBooleanValue("doDaylightCycle")), worldserver.provider.getDimensionId());
+                    PacketBroadcaster.sendToAll(new S03PacketTimeUpdate(worldserver.getTotalWorldTime(), worldserver.getWorldTime(),
+                            worldserver.getGameRules().getGameRuleBooleanValue("doDaylightCycle")), worldserver.playerEntities);
                     this.theProfiler.endSection();
                 }
 
@@ -34,7 +34,6 @@
 import org.spongepowered.api.event.block.InteractBlockEvent;
 import org.spongepowered.api.event.cause.Cause;
 import org.spongepowered.api.event.cause.NamedCause;
-import org.spongepowered.api.world.Location;
 import org.spongepowered.api.world.World;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -43,7 +42,7 @@
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.registry.provider.DirectionFacingProvider;
-import org.spongepowered.common.util.VecHelper;
+import org.spongepowered.server.VanillaHooks;
 
 import java.util.Optional;
 
@@ -55,9 +54,13 @@ public abstract class MixinItemInWorldManager {
 
     @Inject(method = "onBlockClicked", at = @At("HEAD"), cancellable = true)
     public void onOnBlockClicked(BlockPos pos, EnumFacing side, CallbackInfo ci) {
-        Location<World> location = new Location<>((World) this.theWorld, VecHelper.toVector(pos));
+        if (!VanillaHooks.hasListeners(InteractBlockEvent.Primary.class)) {
+            return;
+        }
+
         InteractBlockEvent.Primary event = SpongeEventFactory.createInteractBlockEventPrimary(Cause.of(NamedCause.source(this.thisPlayerMP)),
-                Optional.<Vector3d>empty(), location.createSnapshot(), DirectionFacingProvider.getInstance().getKey(side).get());
+                Optional.<Vector3d>empty(), ((World) this.theWorld).createSnapshot(pos.getX(), pos.getY(), pos.getZ()),
+                DirectionFacingProvider.getInstance().getKey(side).get());
         if (SpongeImpl.postEvent(event)) {
             this.thisPlayerMP.playerNetServerHandler.sendPacket(new S23PacketBlockChange(this.theWorld, pos));
             ci.cancel();
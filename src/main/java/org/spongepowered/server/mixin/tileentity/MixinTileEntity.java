@@ -24,35 +24,80 @@
  */
 package org.spongepowered.server.mixin.tileentity;
 
+import net.minecraft.inventory.IInventory;
 import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
 import org.spongepowered.api.block.tileentity.TileEntity;
 import org.spongepowered.api.util.annotation.NonnullByDefault;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.interfaces.block.tile.IMixinTileEntity;
+import org.spongepowered.server.interfaces.IMixinWorldServer;
+import org.spongepowered.server.util.CustomData;
 
 import javax.annotation.Nullable;
 
 @NonnullByDefault
 @Mixin(value = net.minecraft.tileentity.TileEntity.class, priority = 1001)
-public abstract class MixinTileEntity implements TileEntity, IMixinTileEntity {
+public abstract class MixinTileEntity implements TileEntity, IMixinTileEntity,
+        org.spongepowered.server.interfaces.IMixinTileEntity {
 
-    @Nullable private NBTTagCompound customEntityData;
+    @Shadow protected World worldObj;
+    @Shadow protected BlockPos pos;
+
+    // Created when custom data is read or requested, most entities never have any
+    @Nullable private CustomData customData;
+    private long wakeTick;
 
     @Inject(method = "readFromNBT(Lnet/minecraft/nbt/NBTTagCompound;)V", at = @At("RETURN"))
     public void endReadFromNBTInject(NBTTagCompound tagCompound, CallbackInfo ci) {
-        if (tagCompound.hasKey("ForgeData")) {
-            this.customEntityData = tagCompound.getCompoundTag("ForgeData");
+        if (CustomData.hasCustomData(tagCompound)) {
+            getCustomData().readFromNBT(tagCompound);
         }
     }
 
     @Inject(method = "writeToNBT(Lnet/minecraft/nbt/NBTTagCompound;)V", at = @At("RETURN"))
     public void endWriteToNBTInject(NBTTagCompound tagCompound, CallbackInfo ci) {
-        if (this.customEntityData != null) {
-            tagCompound.setTag("ForgeData", this.customEntityData);
+        if (this.customData != null) {
+            this.customData.writeToNBT(tagCompound);
+        }
+    }
+
+    @Inject(method = "markDirty", at = @At("HEAD"))
+    public void onMarkDirty(CallbackInfo ci) {
+        wake();
+        if ((Object) this instanceof IInventory && this.worldObj instanceof WorldServer) {
+            ((IMixinWorldServer) this.worldObj).getTileEntitySleep().wakeNeighbours(this.pos);
+        }
+    }
+
+    @Override
+    public boolean isSleeping() {
+        return this.worldObj != null && this.wakeTick > this.worldObj.getTotalWorldTime();
+    }
+
+    @Override
+    public void sleep(int ticks) {
+        if (this.worldObj != null) {
+            this.wakeTick = this.worldObj.getTotalWorldTime() + ticks;
+        }
+    }
+
+    @Override
+    public void wake() {
+        this.wakeTick = 0;
+    }
+
+    private CustomData getCustomData() {
+        if (this.customData == null) {
+            this.customData = new CustomData();
         }
+        return this.customData;
     }
 
     /**
@@ -65,13 +110,6 @@ public void endWriteToNBTInject(NBTTagCompound tagCompound, CallbackInfo ci) {
      */
     @Override
     public final NBTTagCompound getSpongeData() {
-        if (this.customEntityData == null) {
-            this.customEntityData = new NBTTagCompound();
-        }
-
-        if (!this.customEntityData.hasKey("SpongeData", 10)) {
-            this.customEntityData.setTag("SpongeData", new NBTTagCompound());
-        }
-        return this.customEntityData.getCompoundTag("SpongeData");
+        return getCustomData().getSpongeData();
     }
 }
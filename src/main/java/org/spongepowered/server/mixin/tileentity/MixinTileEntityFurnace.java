@@ -0,0 +1,57 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.mixin.tileentity;
+
+import net.minecraft.tileentity.TileEntityFurnace;
+import net.minecraft.tileentity.TileEntityLockable;
+import net.minecraft.world.WorldServer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.server.interfaces.IMixinTileEntity;
+import org.spongepowered.server.interfaces.IMixinWorldServer;
+import org.spongepowered.server.world.TileEntitySleep;
+
+@Mixin(TileEntityFurnace.class)
+public abstract class MixinTileEntityFurnace extends TileEntityLockable {
+
+    @Inject(method = "update", at = @At("RETURN"))
+    private void onUpdate(CallbackInfo ci) {
+        if (!(this.worldObj instanceof WorldServer)) {
+            return;
+        }
+
+        final TileEntityFurnace furnace = (TileEntityFurnace) (Object) this;
+        // Nothing changes until fuel or an item to smelt is added
+        if (!furnace.isBurning() && furnace.getField(2) == 0 && (furnace.getStackInSlot(0) == null || furnace.getStackInSlot(1) == null)) {
+            final TileEntitySleep sleep = ((IMixinWorldServer) this.worldObj).getTileEntitySleep();
+            if (sleep.isEnabled()) {
+                ((IMixinTileEntity) this).sleep(sleep.getFurnaceTicks());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,205 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.mixin.tileentity;
+
+import net.minecraft.block.BlockHopper;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.inventory.IInventory;
+import net.minecraft.inventory.ISidedInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.IHopper;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.tileentity.TileEntityChest;
+import net.minecraft.tileentity.TileEntityHopper;
+import net.minecraft.tileentity.TileEntityLockable;
+import net.minecraft.util.AxisAlignedBB;
+import net.minecraft.util.EntitySelectors;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import org.spongepowered.server.interfaces.IMixinTileEntity;
+import org.spongepowered.server.interfaces.IMixinTileEntityHopper;
+import org.spongepowered.server.interfaces.IMixinWorldServer;
+import org.spongepowered.server.world.TileEntitySleep;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+@Mixin(TileEntityHopper.class)
+public abstract class MixinTileEntityHopper extends TileEntityLockable implements IMixinTileEntityHopper {
+
+    @Shadow private int transferCooldown;
+
+    @Nullable private IInventory outputInventory;
+    @Nullable private IInventory inputInventory;
+
+    @Shadow private static boolean canInsertItemInSlot(IInventory inventory, ItemStack stack, int index, EnumFacing side) {
+        return false;
+    }
+
+    @Shadow private static boolean canCombine(ItemStack stack1, ItemStack stack2) {
+        return false;
+    }
+
+    @Shadow private IInventory getInventoryForHopperTransfer() {
+        return null;
+    }
+
+    @Inject(method = "update", at = @At("RETURN"))
+    private void onUpdate(CallbackInfo ci) {
+        if (!(this.worldObj instanceof WorldServer)) {
+            return;
+        }
+
+        // The hopper did not move any item, try again later
+        if (this.transferCooldown <= 0) {
+            final TileEntitySleep sleep = ((IMixinWorldServer) this.worldObj).getTileEntitySleep();
+            if (sleep.isEnabled()) {
+                ((IMixinTileEntity) this).sleep(sleep.getHopperTicks());
+            }
+        }
+    }
+
+    @Override
+    @Nullable
+    public IInventory getCachedInputInventory() {
+        if (this.inputInventory != null && ((TileEntity) this.inputInventory).isInvalid()) {
+            this.inputInventory = null;
+        }
+        return this.inputInventory;
+    }
+
+    @Override
+    public void setCachedInputInventory(@Nullable IInventory inventory) {
+        this.inputInventory = inventory;
+    }
+
+    @Override
+    public void invalidateInventoryCache() {
+        this.outputInventory = null;
+        this.inputInventory = null;
+    }
+
+    /**
+     * Returns whether the inventory can be cached. Entities with an
+     * inventory move and chests may be combined with a chest placed next
+     * to them, which does not notify the hopper.
+     */
+    private static boolean isCacheable(@Nullable IInventory inventory) {
+        return inventory instanceof TileEntity && !(inventory instanceof TileEntityChest);
+    }
+
+    @Inject(method = "getInventoryForHopperTransfer", at = @At("HEAD"), cancellable = true)
+    private void onGetInventoryForHopperTransfer(CallbackInfoReturnable<IInventory> cir) {
+        if (this.outputInventory != null) {
+            if (!((TileEntity) this.outputInventory).isInvalid()) {
+                cir.setReturnValue(this.outputInventory);
+            } else {
+                this.outputInventory = null;
+            }
+        }
+    }
+
+    @Inject(method = "getInventoryForHopperTransfer", at = @At("RETURN"))
+    private void onGetInventoryForHopperTransferReturn(CallbackInfoReturnable<IInventory> cir) {
+        if (isCacheable(cir.getReturnValue())) {
+            this.outputInventory = cir.getReturnValue();
+        }
+    }
+
+    @Inject(method = "getHopperInventory", at = @At("HEAD"), cancellable = true)
+    private static void onGetHopperInventory(IHopper hopper, CallbackInfoReturnable<IInventory> cir) {
+        if (hopper instanceof IMixinTileEntityHopper) {
+            final IInventory inventory = ((IMixinTileEntityHopper) hopper).getCachedInputInventory();
+            if (inventory != null) {
+                cir.setReturnValue(inventory);
+            }
+        }
+    }
+
+    @Inject(method = "getHopperInventory", at = @At("RETURN"))
+    private static void onGetHopperInventoryReturn(IHopper hopper, CallbackInfoReturnable<IInventory> cir) {
+        if (hopper instanceof IMixinTileEntityHopper && isCacheable(cir.getReturnValue())) {
+            ((IMixinTileEntityHopper) hopper).setCachedInputInventory(cir.getReturnValue());
+        }
+    }
+
+    @Redirect(method = "transferItemsOut", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/tileentity/TileEntityHopper;getInventoryForHopperTransfer()Lnet/minecraft/inventory/IInventory;"))
+    @Nullable
+    private IInventory onGetInventoryForTransferOut(TileEntityHopper hopper) {
+        final IInventory inventory = getInventoryForHopperTransfer();
+        // Vanilla copies and restores every stack when the target is full, check first without changing anything
+        // and skip the transfer as if there was no target
+        if (inventory != null && !canInsertAny(inventory, BlockHopper.getFacing(getBlockMetadata()).getOpposite())) {
+            return null;
+        }
+        return inventory;
+    }
+
+    private boolean canInsertAny(IInventory inventory, EnumFacing side) {
+        final int[] slots = inventory instanceof ISidedInventory ? ((ISidedInventory) inventory).getSlotsForFace(side) : null;
+        final int size = slots != null ? slots.length : inventory.getSizeInventory();
+
+        for (int i = 0; i < getSizeInventory(); i++) {
+            final ItemStack stack = getStackInSlot(i);
+            if (stack == null) {
+                continue;
+            }
+
+            for (int j = 0; j < size; j++) {
+                final int slot = slots != null ? slots[j] : j;
+                if (canInsertItemInSlot(inventory, stack, slot, side)) {
+                    final ItemStack current = inventory.getStackInSlot(slot);
+                    if (current == null || current.stackSize < current.getMaxStackSize() && canCombine(current, stack)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @Inject(method = "func_145897_a", at = @At("HEAD"), cancellable = true)
+    private static void onFindItems(World world, double x, double y, double z, CallbackInfoReturnable<List<EntityItem>> cir) {
+        if (world instanceof WorldServer) {
+            // Usually there are no items, so don't allocate a full list
+            final List<EntityItem> items = new ArrayList<>(0);
+            ((IMixinWorldServer) world).getEntityGrid().collect(EntityItem.class,
+                    new AxisAlignedBB(x - 0.5D, y - 0.5D, z - 0.5D, x + 0.5D, y + 0.5D, z + 0.5D), EntitySelectors.selectAnything, items);
+            cir.setReturnValue(items);
+        }
+    }
+
+}
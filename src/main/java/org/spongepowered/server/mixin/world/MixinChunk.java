@@ -29,28 +29,52 @@
 import org.spongepowered.api.event.SpongeEventFactory;
 import org.spongepowered.api.event.cause.Cause;
 import org.spongepowered.api.event.cause.NamedCause;
+import org.spongepowered.api.event.world.chunk.LoadChunkEvent;
+import org.spongepowered.api.event.world.chunk.UnloadChunkEvent;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.server.VanillaHooks;
+import org.spongepowered.server.event.NotificationDispatcher;
+import org.spongepowered.server.event.notification.ChunkLoadNotification;
+import org.spongepowered.server.event.notification.ChunkUnloadNotification;
 
 @Mixin(value = Chunk.class, priority = 1001)
 public abstract class MixinChunk {
 
     @Shadow private World worldObj;
+    @Shadow public int xPosition;
+    @Shadow public int zPosition;
 
     @Inject(method = "onChunkLoad", at = @At("RETURN"))
     public void postChunkLoad(CallbackInfo ci) {
-        SpongeImpl.postEvent(SpongeEventFactory.createLoadChunkEvent(Cause.of(NamedCause.source(this.worldObj)),
-                (org.spongepowered.api.world.Chunk) this));
+        if (VanillaHooks.hasListeners(LoadChunkEvent.class)) {
+            SpongeImpl.postEvent(SpongeEventFactory.createLoadChunkEvent(Cause.of(NamedCause.source(this.worldObj)),
+                    (org.spongepowered.api.world.Chunk) this));
+        }
+
+        final NotificationDispatcher notifications = VanillaHooks.getNotifications();
+        if (notifications.hasListeners(ChunkLoadNotification.class)) {
+            notifications.post(new ChunkLoadNotification(((org.spongepowered.api.world.World) this.worldObj).getUniqueId(),
+                    this.xPosition, this.zPosition));
+        }
     }
 
     @Inject(method = "onChunkUnload", at = @At("RETURN"))
     public void postChunkUnload(CallbackInfo ci) {
-        SpongeImpl.postEvent(SpongeEventFactory.createUnloadChunkEvent(Cause.of(NamedCause.source(this.worldObj)),
-                (org.spongepowered.api.world.Chunk) this));
+        if (VanillaHooks.hasListeners(UnloadChunkEvent.class)) {
+            SpongeImpl.postEvent(SpongeEventFactory.createUnloadChunkEvent(Cause.of(NamedCause.source(this.worldObj)),
+                    (org.spongepowered.api.world.Chunk) this));
+        }
+
+        final NotificationDispatcher notifications = VanillaHooks.getNotifications();
+        if (notifications.hasListeners(ChunkUnloadNotification.class)) {
+            notifications.post(new ChunkUnloadNotification(((org.spongepowered.api.world.World) this.worldObj).getUniqueId(),
+                    this.xPosition, this.zPosition));
+        }
     }
 
 
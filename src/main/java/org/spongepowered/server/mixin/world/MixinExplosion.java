@@ -25,12 +25,20 @@
 package org.spongepowered.server.mixin.world;
 
 import com.google.common.collect.ImmutableList;
+import net.minecraft.block.material.Material;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.enchantment.EnchantmentProtection;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityLivingBase;
+import net.minecraft.init.Blocks;
 import net.minecraft.util.AxisAlignedBB;
 import net.minecraft.util.BlockPos;
+import net.minecraft.util.DamageSource;
 import net.minecraft.world.Explosion;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldType;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
 import org.spongepowered.api.block.BlockSnapshot;
 import org.spongepowered.api.block.BlockTypes;
 import org.spongepowered.api.data.Transaction;
@@ -43,9 +51,12 @@
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.util.VecHelper;
+import org.spongepowered.server.VanillaHooks;
 import org.spongepowered.server.interfaces.IMixinExplosion;
 
 import java.util.List;
@@ -55,10 +66,31 @@
 @Mixin(value = Explosion.class, priority = 1001)
 public abstract class MixinExplosion implements org.spongepowered.api.world.explosion.Explosion, IMixinExplosion {
     @Shadow private World worldObj;
+    @Shadow private boolean isFlaming;
     @Shadow @Nullable private Entity exploder;
     @Shadow private List<BlockPos> affectedBlockPositions;
     @Shadow @Nullable abstract EntityLivingBase getExplosivePlacedBy();
 
+    private int batchSize = 1;
+
+    // Chunk section of the last block looked up by the ray march in doExplosionA
+    @Nullable private Chunk rayChunk;
+    @Nullable private ExtendedBlockStorage raySection;
+    private boolean hasRaySection;
+    private int raySectionX;
+    private int raySectionY;
+    private int raySectionZ;
+
+    @Override
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    @Override
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     @Override
     public Cause createCause() {
         Object source;
@@ -95,7 +127,19 @@ public Cause createCause() {
     @Redirect(method = "doExplosionA", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/World;"
             + "getEntitiesWithinAABBExcludingEntity(Lnet/minecraft/entity/Entity;Lnet/minecraft/util/AxisAlignedBB;)Ljava/util/List;"))
     public List<?> callWorldOnExplosionEvent(World world, Entity entity, AxisAlignedBB aabb) {
+        if (this.batchSize > 1 && changesBlocks()) {
+            // Only the first of the merged explosions is detonated here, the batcher detonates the others separately
+            this.batchSize = 1;
+        }
+
         final List<?> affectedEntities = world.getEntitiesWithinAABBExcludingEntity(entity, aabb);
+        if (!VanillaHooks.hasListeners(ExplosionEvent.Detonate.class)) {
+            if (!shouldBreakBlocks()) {
+                this.affectedBlockPositions.clear();
+            }
+            return affectedEntities;
+        }
+
         final org.spongepowered.api.world.World spongeWorld = (org.spongepowered.api.world.World) this.worldObj;
 
         final ImmutableList.Builder<Transaction<BlockSnapshot>> blockTransactionBuilder = ImmutableList.builder();
@@ -137,4 +181,76 @@ public List<?> callWorldOnExplosionEvent(World world, Entity entity, AxisAligned
 
         return affectedEntities;
     }
+
+    private boolean changesBlocks() {
+        if (this.isFlaming) {
+            return true;
+        }
+        if (!shouldBreakBlocks()) {
+            return false;
+        }
+
+        // Rays also add the air blocks they pass
+        for (BlockPos pos : this.affectedBlockPositions) {
+            if (this.worldObj.getBlockState(pos).getBlock().getMaterial() != Material.air) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Redirect(method = "doExplosionA", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/entity/Entity;attackEntityFrom(Lnet/minecraft/util/DamageSource;F)Z"))
+    public boolean onAttackEntity(Entity entity, DamageSource source, float damage) {
+        // Attack once per merged explosion, damage immunity applies as it would for separate ones
+        boolean attacked = false;
+        for (int i = 0; i < this.batchSize; i++) {
+            attacked |= entity.attackEntityFrom(source, damage);
+        }
+        return attacked;
+    }
+
+    @Redirect(method = "doExplosionA", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/enchantment/EnchantmentProtection;func_92092_a(Lnet/minecraft/entity/Entity;D)D"))
+    public double onGetKnockback(Entity entity, double knockback) {
+        // Knockback of merged explosions stacks, as it would for separate ones
+        return EnchantmentProtection.func_92092_a(entity, knockback) * this.batchSize;
+    }
+
+    @Redirect(method = "doExplosionA", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/world/World;getBlockState(Lnet/minecraft/util/BlockPos;)Lnet/minecraft/block/state/IBlockState;"))
+    public IBlockState onGetRayBlockState(World world, BlockPos pos) {
+        if (!world.isValid(pos) || world.getWorldType() == WorldType.DEBUG_WORLD) {
+            return world.getBlockState(pos);
+        }
+
+        // Consecutive steps of a ray (and the first steps of all rays) mostly stay in the
+        // same chunk section, so skip the chunk provider lookup while they do
+        final int sectionX = pos.getX() >> 4;
+        final int sectionY = pos.getY() >> 4;
+        final int sectionZ = pos.getZ() >> 4;
+        if (!this.hasRaySection || sectionX != this.raySectionX || sectionY != this.raySectionY || sectionZ != this.raySectionZ) {
+            if (this.rayChunk == null || sectionX != this.raySectionX || sectionZ != this.raySectionZ) {
+                this.rayChunk = world.getChunkFromChunkCoords(sectionX, sectionZ);
+            }
+            this.raySection = this.rayChunk.getBlockStorageArray()[sectionY];
+            this.raySectionX = sectionX;
+            this.raySectionY = sectionY;
+            this.raySectionZ = sectionZ;
+            this.hasRaySection = true;
+        }
+
+        if (this.raySection == null) {
+            return Blocks.air.getDefaultState();
+        }
+        return this.raySection.get(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+    }
+
+    @Inject(method = "doExplosionA", at = @At("RETURN"))
+    public void onDoExplosionAReturn(CallbackInfo ci) {
+        // Don't keep the chunk alive with the explosion
+        this.rayChunk = null;
+        this.raySection = null;
+        this.hasRaySection = false;
+    }
 }
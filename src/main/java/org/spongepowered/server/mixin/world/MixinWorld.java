@@ -24,14 +24,26 @@
  */
 package org.spongepowered.server.mixin.world;
 
+import net.minecraft.block.Block;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.gui.IUpdatePlayerListBox;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.BlockPos;
 import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.storage.WorldInfo;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.interfaces.world.IMixinWorld;
+import org.spongepowered.server.interfaces.IMixinEntity;
+import org.spongepowered.server.interfaces.IMixinTileEntity;
+import org.spongepowered.server.interfaces.IMixinTileEntityHopper;
+import org.spongepowered.server.interfaces.IMixinWorldServer;
 
 @Mixin(World.class)
 public abstract class MixinWorld implements IMixinWorld {
@@ -47,5 +59,38 @@ private void onUpdateWeatherBody(CallbackInfo ci) {
         this.setWeatherStartTime(this.worldInfo.getWorldTotalTime());
     }
 
+    @Redirect(method = "updateEntityWithOptionalForce", at = @At(value = "INVOKE", target = "Lnet/minecraft/entity/Entity;onUpdate()V"))
+    private void onUpdateEntity(Entity entity) {
+        if ((Object) this instanceof WorldServer && !((IMixinWorldServer) this).getActivationRange().isActive(entity)) {
+            ((IMixinEntity) entity).inactiveTick();
+        } else {
+            entity.onUpdate();
+        }
+    }
+
+    @Redirect(method = "updateEntities", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/gui/IUpdatePlayerListBox;update()V"))
+    private void onUpdateTileEntity(IUpdatePlayerListBox tileEntity) {
+        if ((Object) this instanceof WorldServer) {
+            ((IMixinWorldServer) this).getTileEntitySleep().update(tileEntity);
+        } else {
+            tileEntity.update();
+        }
+    }
+
+    @Inject(method = "notifyBlockOfStateChange", at = @At("HEAD"))
+    private void onNotifyBlockOfStateChange(BlockPos pos, Block block, CallbackInfo ci) {
+        final World world = (World) (Object) this;
+        if (!world.isRemote && world.isBlockLoaded(pos)) {
+            // Wake up sleeping tile entities and drop cached neighbours when a neighbour changes
+            final TileEntity tileEntity = world.getChunkFromBlockCoords(pos).getTileEntity(pos, Chunk.EnumCreateEntityType.CHECK);
+            if (tileEntity != null) {
+                ((IMixinTileEntity) tileEntity).wake();
+                if (tileEntity instanceof IMixinTileEntityHopper) {
+                    ((IMixinTileEntityHopper) tileEntity).invalidateInventoryCache();
+                }
+            }
+        }
+    }
+
 
 }
@@ -24,15 +24,23 @@
  */
 package org.spongepowered.server.mixin.world;
 
+import com.google.common.base.Predicate;
+import com.google.common.collect.Lists;
 import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.item.EntityXPOrb;
+import net.minecraft.inventory.IInventory;
 import net.minecraft.profiler.Profiler;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.AxisAlignedBB;
 import net.minecraft.world.Explosion;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldProvider;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.storage.ISaveHandler;
 import net.minecraft.world.storage.WorldInfo;
+import org.spongepowered.api.block.BlockSnapshot;
+import org.spongepowered.api.block.BlockTypes;
 import org.spongepowered.api.event.SpongeEventFactory;
 import org.spongepowered.api.event.world.ExplosionEvent;
 import org.spongepowered.asm.mixin.Mixin;
@@ -42,11 +50,29 @@
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.server.VanillaHooks;
+import org.spongepowered.server.entity.ActivationRange;
+import org.spongepowered.server.entity.EntityMerger;
 import org.spongepowered.server.interfaces.IMixinExplosion;
+import org.spongepowered.server.interfaces.IMixinWorldServer;
+import org.spongepowered.server.world.EntityGrid;
+import org.spongepowered.server.world.ExplosionBatcher;
+import org.spongepowered.server.world.TileEntitySleep;
 import org.spongepowered.server.world.VanillaDimensionManager;
 
+import java.util.List;
+
+import javax.annotation.Nullable;
+
 @Mixin(value = WorldServer.class, priority = 1001)
-public abstract class MixinWorldServer extends World {
+public abstract class MixinWorldServer extends World implements IMixinWorldServer {
+
+    private final EntityGrid entityGrid = new EntityGrid();
+    private final ExplosionBatcher explosionBatcher = new ExplosionBatcher((WorldServer) (Object) this);
+    @Nullable private ActivationRange activationRange;
+    @Nullable private EntityMerger entityMerger;
+    @Nullable private TileEntitySleep tileEntitySleep;
+    @Nullable private BlockSnapshot airSnapshot;
 
     protected MixinWorldServer(ISaveHandler saveHandlerIn, WorldInfo info,
             WorldProvider providerIn, Profiler profilerIn, boolean client) {
@@ -59,10 +85,119 @@ public void onConstructed(MinecraftServer server, ISaveHandler saveHandlerIn, Wo
         VanillaDimensionManager.setWorld(dimensionId, (WorldServer) (Object) this);
     }
 
+    @Override
+    public EntityGrid getEntityGrid() {
+        return this.entityGrid;
+    }
+
+    @Override
+    public ActivationRange getActivationRange() {
+        if (this.activationRange == null) {
+            this.activationRange = new ActivationRange((WorldServer) (Object) this);
+        }
+        return this.activationRange;
+    }
+
+    @Override
+    public EntityMerger getEntityMerger() {
+        if (this.entityMerger == null) {
+            this.entityMerger = new EntityMerger((WorldServer) (Object) this);
+        }
+        return this.entityMerger;
+    }
+
+    @Override
+    public TileEntitySleep getTileEntitySleep() {
+        if (this.tileEntitySleep == null) {
+            this.tileEntitySleep = new TileEntitySleep((WorldServer) (Object) this);
+        }
+        return this.tileEntitySleep;
+    }
+
+    @Override
+    public BlockSnapshot getAirSnapshot() {
+        if (this.airSnapshot == null) {
+            // Snapshots are immutable, so the same one can be passed to every event
+            this.airSnapshot = ((org.spongepowered.api.world.World) this).createSnapshot(0, 0, 0).withState(BlockTypes.AIR.getDefaultState());
+        }
+        return this.airSnapshot;
+    }
+
+    @Inject(method = "onEntityAdded", at = @At("HEAD"), cancellable = true)
+    public void mergeOrTrackAddedEntity(Entity entity, CallbackInfo ci) {
+        // Items thrown by players stay visible until they are merged periodically while they exist
+        if ((entity instanceof EntityItem && ((EntityItem) entity).getThrower() == null || entity instanceof EntityXPOrb)
+                && getEntityMerger().merge(entity)) {
+            // Merged into an existing entity, it is removed in the next tick without ever being tracked
+            ci.cancel();
+            return;
+        }
+
+        this.entityGrid.add(entity);
+        if (entity instanceof EntityItem || entity instanceof IInventory) {
+            getTileEntitySleep().wakeNear(entity);
+        }
+    }
+
+    @Inject(method = "onEntityRemoved", at = @At("HEAD"))
+    public void onEntityRemovedFromGrid(Entity entity, CallbackInfo ci) {
+        this.entityGrid.remove(entity);
+    }
+
+    @Inject(method = "updateEntityWithOptionalForce", at = @At("RETURN"))
+    public void onUpdateEntityWithOptionalForce(Entity entity, boolean forceUpdate, CallbackInfo ci) {
+        if (!entity.isDead) {
+            this.entityGrid.update(entity);
+            if ((entity instanceof EntityItem || entity instanceof IInventory)
+                    && (entity.posX != entity.lastTickPosX || entity.posY != entity.lastTickPosY || entity.posZ != entity.lastTickPosZ)) {
+                getTileEntitySleep().wakeNear(entity);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public List getEntitiesInAABBexcluding(@Nullable Entity entityIn, AxisAlignedBB boundingBox, @Nullable Predicate predicate) {
+        final List<Entity> entities = Lists.newArrayList();
+        this.entityGrid.collect(entityIn, boundingBox, predicate, entities);
+        return entities;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public List getEntitiesWithinAABB(Class clazz, AxisAlignedBB aabb, @Nullable Predicate filter) {
+        final List<Entity> entities = Lists.newArrayList();
+        this.entityGrid.collect(clazz, aabb, filter, entities);
+        return entities;
+    }
+
+    @Inject(method = "newExplosion", at = @At("HEAD"), cancellable = true)
+    public void onNewExplosion(Entity entityIn, double x, double y, double z, float strength, boolean isFlaming, boolean isSmoking,
+            CallbackInfoReturnable<Explosion> cir) {
+        if (this.explosionBatcher.canBatch(entityIn)) {
+            cir.setReturnValue(this.explosionBatcher.queue(entityIn, x, y, z, strength, isFlaming, isSmoking));
+        }
+    }
+
+    @Inject(method = "updateEntities", at = @At("HEAD"))
+    public void onUpdateEntitiesStart(CallbackInfo ci) {
+        getActivationRange().activateEntities();
+        this.explosionBatcher.start();
+    }
+
+    @Inject(method = "updateEntities", at = @At("RETURN"))
+    public void onUpdateEntities(CallbackInfo ci) {
+        this.explosionBatcher.flush();
+    }
+
     @Inject(method = "newExplosion", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/Explosion;doExplosionA()V"),
             locals = LocalCapture.CAPTURE_FAILHARD, cancellable = true)
     public void callWorldOnExplosionEvent(Entity entityIn, double x, double y, double z, float strength, boolean isFlaming, boolean isSmoking,
             CallbackInfoReturnable<Explosion> cir, Explosion explosion) {
+        if (!VanillaHooks.hasListeners(ExplosionEvent.Pre.class)) {
+            return;
+        }
+
         final ExplosionEvent.Pre event = SpongeEventFactory.createExplosionEventPre(((IMixinExplosion) explosion).createCause(),
                 (org.spongepowered.api.world.explosion.Explosion) explosion, (org.spongepowered.api.world.World) this);
         if (SpongeImpl.postEvent(event)) {
@@ -24,21 +24,33 @@
  */
 package org.spongepowered.server.mixin.world.storage;
 
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.world.storage.SaveHandler;
 import net.minecraft.world.storage.WorldInfo;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Overwrite;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
+import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.interfaces.IMixinSaveHandler;
+import org.spongepowered.server.world.storage.PlayerDataWriter;
 
 import java.io.File;
 import java.io.IOException;
 
+import javax.annotation.Nullable;
+
 @Mixin(value = SaveHandler.class, priority = 1001)
 public abstract class MixinSaveHandler {
+
+    @Shadow private File playersDirectory;
+
+    @Nullable private PlayerDataWriter playerDataWriter;
+
     @Inject(method = "loadWorldInfo", at = @At(value = "RETURN", ordinal = 0), locals = LocalCapture.CAPTURE_FAILHARD, cancellable = true)
     public void onLoadWorldInfoBeforeReturn0(CallbackInfoReturnable<WorldInfo> cir, File file1, NBTTagCompound nbttagcompound,
             NBTTagCompound nbttagcompound1) throws IOException {
@@ -56,4 +68,36 @@ public void onLoadWorldInfoBeforeReturn1(CallbackInfoReturnable<WorldInfo> cir,
         ((IMixinSaveHandler) this).loadSpongeDatData(info);
         cir.setReturnValue(info);
     }
+
+    private PlayerDataWriter getPlayerDataWriter() {
+        if (this.playerDataWriter == null) {
+            this.playerDataWriter = new PlayerDataWriter(this.playersDirectory);
+        }
+        return this.playerDataWriter;
+    }
+
+    @Overwrite
+    public void writePlayerData(EntityPlayer player) {
+        try {
+            final NBTTagCompound compound = new NBTTagCompound();
+            player.writeToNBT(compound);
+            // Copy, the compound may share tags with the player that are modified later
+            getPlayerDataWriter().write(player.getUniqueID(), player.getName(), (NBTTagCompound) compound.copy());
+        } catch (Exception e) {
+            SpongeImpl.getLogger().warn("Failed to save player data for {}", player.getName(), e);
+        }
+    }
+
+    @Inject(method = "readPlayerData", at = @At("HEAD"), cancellable = true)
+    public void onReadPlayerData(EntityPlayer player, CallbackInfoReturnable<NBTTagCompound> cir) {
+        // Use the data that is still waiting to be written, the file is outdated
+        if (this.playerDataWriter != null) {
+            final NBTTagCompound pending = this.playerDataWriter.getPending(player.getUniqueID());
+            if (pending != null) {
+                final NBTTagCompound compound = (NBTTagCompound) pending.copy();
+                player.readFromNBT(compound);
+                cir.setReturnValue(compound);
+            }
+        }
+    }
 }
@@ -0,0 +1,263 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.network;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.ReferenceCountUtil;
+import net.minecraft.network.NettyCompressionEncoder;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+/**
+ * A compression encoder that compresses large packets on a worker pool
+ * instead of the event loop of the connection.
+ *
+ * <p>Packets are still written in order: once a packet is compressed
+ * asynchronously, the following packets wait in a queue until it is
+ * done. Small packets are compressed on the event loop.</p>
+ */
+public final class AsyncCompressionEncoder extends NettyCompressionEncoder {
+
+    @Nullable private static ExecutorService executor;
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(NetworkConfig.getInstance().getCompressionThreads(),
+                    new ThreadFactoryBuilder().setNameFormat("Sponge Compression Thread #%d").setDaemon(true).build());
+        }
+        return executor;
+    }
+
+    private final int asyncThreshold;
+    private int threshold;
+
+    // Only accessed on the event loop
+    private final Deque<PendingWrite> queue = new ArrayDeque<>();
+    private boolean flushQueued;
+    private boolean removed;
+
+    private final AtomicLong compressionTime = new AtomicLong();
+    private final AtomicLong asyncPackets = new AtomicLong();
+    private volatile int queueDepth;
+    private volatile int maxQueueDepth;
+
+    public AsyncCompressionEncoder(int threshold) {
+        super(threshold);
+        this.threshold = threshold;
+        this.asyncThreshold = NetworkConfig.getInstance().getAsyncCompressionThreshold();
+    }
+
+    @Override
+    public void setCompressionTreshold(int threshold) {
+        super.setCompressionTreshold(threshold);
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof PreCompressedPacket) {
+            final ByteBuf compressed = ((PreCompressedPacket) msg).content();
+            if (this.queue.isEmpty()) {
+                ctx.write(compressed, promise);
+            } else {
+                enqueue(new PendingWrite(promise)).result = compressed;
+            }
+            return;
+        }
+
+        if (!(msg instanceof ByteBuf)) {
+            super.write(ctx, msg, promise);
+            return;
+        }
+
+        final ByteBuf in = (ByteBuf) msg;
+        if (in.readableBytes() < this.asyncThreshold) {
+            if (this.queue.isEmpty()) {
+                super.write(ctx, msg, promise);
+            } else {
+                // Keep the order of the packets
+                enqueue(new PendingWrite(promise)).result = compress(ctx, in);
+            }
+            return;
+        }
+
+        final PendingWrite write = enqueue(new PendingWrite(promise));
+        final int threshold = this.threshold;
+        getExecutor().execute(() -> {
+            final long start = System.nanoTime();
+            try {
+                final ByteBuf out = ctx.alloc().buffer();
+                try {
+                    PacketCompression.compress(in, out, threshold);
+                    write.result = out;
+                } catch (Throwable e) {
+                    out.release();
+                    write.failure = e;
+                }
+            } finally {
+                ReferenceCountUtil.release(in);
+                this.compressionTime.addAndGet(System.nanoTime() - start);
+                this.asyncPackets.incrementAndGet();
+                ctx.executor().execute(() -> {
+                    if (this.removed) {
+                        // Failed with the other queued writes already
+                        write.release();
+                    } else {
+                        drain(ctx);
+                    }
+                });
+            }
+        });
+    }
+
+    private ByteBuf compress(ChannelHandlerContext ctx, ByteBuf in) {
+        final long start = System.nanoTime();
+        final ByteBuf out = ctx.alloc().buffer();
+        try {
+            PacketCompression.compress(in, out, this.threshold);
+            return out;
+        } catch (RuntimeException e) {
+            out.release();
+            throw e;
+        } finally {
+            in.release();
+            this.compressionTime.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private PendingWrite enqueue(PendingWrite write) {
+        this.queue.add(write);
+        this.queueDepth = this.queue.size();
+        if (this.queueDepth > this.maxQueueDepth) {
+            this.maxQueueDepth = this.queueDepth;
+        }
+        return write;
+    }
+
+    private void drain(ChannelHandlerContext ctx) {
+        if (this.removed) {
+            failQueued();
+            return;
+        }
+
+        boolean written = false;
+        PendingWrite write;
+        while ((write = this.queue.peek()) != null && write.isDone()) {
+            this.queue.poll();
+            if (write.result != null) {
+                ctx.write(write.result, write.promise);
+            } else {
+                write.promise.setFailure(write.failure);
+            }
+            written = true;
+        }
+        this.queueDepth = this.queue.size();
+
+        if (written && this.flushQueued) {
+            this.flushQueued = !this.queue.isEmpty();
+            ctx.flush();
+        }
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        if (!this.queue.isEmpty()) {
+            // Flush the queued packets once they are written
+            this.flushQueued = true;
+        }
+        ctx.flush();
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        this.removed = true;
+        failQueued();
+        super.handlerRemoved(ctx);
+    }
+
+    private void failQueued() {
+        if (this.queue.isEmpty()) {
+            return;
+        }
+
+        final ClosedChannelException cause = new ClosedChannelException();
+        PendingWrite write;
+        while ((write = this.queue.poll()) != null) {
+            write.release();
+            write.promise.tryFailure(cause);
+        }
+        this.queueDepth = 0;
+    }
+
+    public double getCompressionMillis() {
+        return this.compressionTime.get() / 1000000.0D;
+    }
+
+    public long getAsyncPackets() {
+        return this.asyncPackets.get();
+    }
+
+    public int getQueueDepth() {
+        return this.queueDepth;
+    }
+
+    public int getMaxQueueDepth() {
+        return this.maxQueueDepth;
+    }
+
+    private static final class PendingWrite {
+
+        final ChannelPromise promise;
+        @Nullable volatile ByteBuf result;
+        @Nullable volatile Throwable failure;
+
+        PendingWrite(ChannelPromise promise) {
+            this.promise = promise;
+        }
+
+        boolean isDone() {
+            return this.result != null || this.failure != null;
+        }
+
+        void release() {
+            final ByteBuf result = this.result;
+            if (result != null) {
+                this.result = null;
+                result.release();
+            }
+        }
+    }
+
+}
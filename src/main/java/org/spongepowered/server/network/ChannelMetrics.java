@@ -0,0 +1,84 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.network;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Traffic counters of a single channel binding. Bytes are counted without
+ * the custom payload packet around them.
+ */
+public final class ChannelMetrics {
+
+    private final AtomicLong messagesIn = new AtomicLong();
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong messagesOut = new AtomicLong();
+    private final AtomicLong bytesOut = new AtomicLong();
+    private final AtomicLong decodeTime = new AtomicLong();
+    private final AtomicLong handlerTime = new AtomicLong();
+
+    void recordIn(int messages, int bytes) {
+        this.messagesIn.addAndGet(messages);
+        this.bytesIn.addAndGet(bytes);
+    }
+
+    void recordOut(int messages, int bytes) {
+        this.messagesOut.addAndGet(messages);
+        this.bytesOut.addAndGet(bytes);
+    }
+
+    void recordDecode(long nanos) {
+        this.decodeTime.addAndGet(nanos);
+    }
+
+    void recordHandler(long nanos) {
+        this.handlerTime.addAndGet(nanos);
+    }
+
+    public long getMessagesIn() {
+        return this.messagesIn.get();
+    }
+
+    public long getBytesIn() {
+        return this.bytesIn.get();
+    }
+
+    public long getMessagesOut() {
+        return this.messagesOut.get();
+    }
+
+    public long getBytesOut() {
+        return this.bytesOut.get();
+    }
+
+    public double getDecodeMillis() {
+        return this.decodeTime.get() / 1000000.0D;
+    }
+
+    public double getHandlerMillis() {
+        return this.handlerTime.get() / 1000000.0D;
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.network;
+
+import org.spongepowered.server.config.VanillaConfig;
+
+import javax.annotation.Nullable;
+
+/**
+ * The network settings of {@link VanillaConfig}, which apply to all
+ * connections.
+ */
+public final class NetworkConfig {
+
+    private static final String CATEGORY = "network";
+
+    @Nullable private static NetworkConfig instance;
+
+    private final boolean consolidateFlushes;
+    private final int maxPendingPackets;
+    private final int maxPacketsPerTick;
+    private final int maxQueuedPackets;
+    private final boolean asyncCompression;
+    private final int asyncCompressionThreshold;
+    private final int compressionThreads;
+    private final boolean useEpoll;
+    private final int bossThreads;
+    private final int workerThreads;
+    private final boolean directBuffers;
+
+    private NetworkConfig(VanillaConfig config) {
+        this.consolidateFlushes = config.getBoolean(null, CATEGORY, "consolidate-flushes", true,
+                "If enabled, packets are flushed to the client once per tick instead of after every packet");
+        this.maxPendingPackets = config.getInt(null, CATEGORY, "max-pending-packets", 64,
+                "The number of packets after which a connection is flushed before the end of the tick");
+        this.maxPacketsPerTick = config.getInt(null, CATEGORY, "max-packets-per-tick", 200,
+                "The maximum number of packets processed for a player per tick, the rest is processed in the next ticks");
+        this.maxQueuedPackets = config.getInt(null, CATEGORY, "max-queued-packets", 2000,
+                "The number of unprocessed packets at which a player is kicked for flooding the server");
+        this.asyncCompression = config.getBoolean(null, CATEGORY, "async-compression", false,
+                "If enabled, large packets are compressed on separate threads instead of the network threads");
+        this.asyncCompressionThreshold = config.getInt(null, CATEGORY, "async-compression-threshold", 16384,
+                "The size in bytes from which packets are compressed on separate threads");
+        this.compressionThreads = Math.max(1, config.getInt(null, CATEGORY, "compression-threads",
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2), "The number of threads compressing large packets"));
+        this.useEpoll = config.getBoolean(null, CATEGORY, "use-epoll", true,
+                "If enabled, the native epoll transport is used on Linux if it is available");
+        this.bossThreads = Math.max(1, config.getInt(null, CATEGORY, "boss-threads", 1,
+                "The number of threads accepting connections"));
+        this.workerThreads = Math.max(0, config.getInt(null, CATEGORY, "worker-threads", 0,
+                "The number of threads handling connections, 0 uses twice the number of processors"));
+        this.directBuffers = config.getBoolean(null, CATEGORY, "direct-buffers", true,
+                "If enabled, connections use pooled direct buffers instead of pooled heap buffers");
+    }
+
+    public static synchronized NetworkConfig getInstance() {
+        if (instance == null) {
+            instance = new NetworkConfig(VanillaConfig.getInstance());
+        }
+        return instance;
+    }
+
+    public boolean isConsolidateFlushes() {
+        return this.consolidateFlushes;
+    }
+
+    public int getMaxPendingPackets() {
+        return this.maxPendingPackets;
+    }
+
+    public int getMaxPacketsPerTick() {
+        return this.maxPacketsPerTick;
+    }
+
+    public int getMaxQueuedPackets() {
+        return this.maxQueuedPackets;
+    }
+
+    public boolean isAsyncCompression() {
+        return this.asyncCompression;
+    }
+
+    public int getAsyncCompressionThreshold() {
+        return this.asyncCompressionThreshold;
+    }
+
+    public int getCompressionThreads() {
+        return this.compressionThreads;
+    }
+
+    public boolean isUseEpoll() {
+        return this.useEpoll;
+    }
+
+    public int getBossThreads() {
+        return this.bossThreads;
+    }
+
+    public int getWorkerThreads() {
+        return this.workerThreads;
+    }
+
+    public boolean isDirectBuffers() {
+        return this.directBuffers;
+    }
+
+}
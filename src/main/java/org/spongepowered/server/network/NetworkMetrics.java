@@ -0,0 +1,86 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.network;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the packets written and flushes done for all connections. Every
+ * flush of a connection with pending data is one write to its socket.
+ */
+public final class NetworkMetrics {
+
+    private static final AtomicLong packets = new AtomicLong();
+    private static final AtomicLong flushes = new AtomicLong();
+
+    private static long lastUpdate = System.nanoTime();
+    private static long lastPackets;
+    private static long lastFlushes;
+    private static volatile double packetsPerSecond;
+    private static volatile double flushesPerSecond;
+
+    private NetworkMetrics() {
+    }
+
+    static void recordPacket() {
+        packets.incrementAndGet();
+    }
+
+    static void recordFlush() {
+        flushes.incrementAndGet();
+    }
+
+    /**
+     * Updates the rates per second. Called on the main thread.
+     */
+    public static void updateRates() {
+        final long now = System.nanoTime();
+        final double seconds = (now - lastUpdate) / 1000000000.0D;
+        final long packets = NetworkMetrics.packets.get();
+        final long flushes = NetworkMetrics.flushes.get();
+        packetsPerSecond = (packets - lastPackets) / seconds;
+        flushesPerSecond = (flushes - lastFlushes) / seconds;
+        lastUpdate = now;
+        lastPackets = packets;
+        lastFlushes = flushes;
+    }
+
+    public static long getPackets() {
+        return packets.get();
+    }
+
+    public static long getFlushes() {
+        return flushes.get();
+    }
+
+    public static double getPacketsPerSecond() {
+        return packetsPerSecond;
+    }
+
+    public static double getFlushesPerSecond() {
+        return flushesPerSecond;
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.network;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import org.spongepowered.common.SpongeImpl;
+
+import java.util.concurrent.ThreadFactory;
+
+import javax.annotation.Nullable;
+
+/**
+ * Selects the Netty transport and event loops of the server endpoints.
+ * The native epoll transport is used on Linux if it is available and
+ * enabled, otherwise NIO like in vanilla.
+ */
+public final class NetworkTransport {
+
+    @Nullable private static NetworkTransport instance;
+
+    private final boolean epoll;
+    private final EventLoopGroup bossGroup;
+    private final EventLoopGroup workerGroup;
+    private final ByteBufAllocator allocator;
+
+    private NetworkTransport(NetworkConfig config) {
+        this.epoll = config.isUseEpoll() && Epoll.isAvailable();
+        final String name = this.epoll ? "Epoll" : "NIO";
+        this.bossGroup = createGroup(config.getBossThreads(), "Netty " + name + " Server Boss #%d");
+        this.workerGroup = createGroup(config.getWorkerThreads(), "Netty " + name + " Server IO #%d");
+        this.allocator = new PooledByteBufAllocator(config.isDirectBuffers());
+
+        SpongeImpl.getLogger().info("Using the {} network transport with {} boss and {} worker threads", name,
+                config.getBossThreads(), config.getWorkerThreads() > 0 ? config.getWorkerThreads() : "default");
+    }
+
+    public static synchronized NetworkTransport getInstance() {
+        if (instance == null) {
+            instance = new NetworkTransport(NetworkConfig.getInstance());
+        }
+        return instance;
+    }
+
+    private EventLoopGroup createGroup(int threads, String nameFormat) {
+        final ThreadFactory factory = new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build();
+        return this.epoll ? new EpollEventLoopGroup(threads, factory) : new NioEventLoopGroup(threads, factory);
+    }
+
+    public boolean isEpoll() {
+        return this.epoll;
+    }
+
+    public Class<? extends ServerChannel> getServerChannelClass() {
+        return this.epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    public EventLoopGroup getBossGroup() {
+        return this.bossGroup;
+    }
+
+    public EventLoopGroup getWorkerGroup() {
+        return this.workerGroup;
+    }
+
+    public ByteBufAllocator getAllocator() {
+        return this.allocator;
+    }
+
+}
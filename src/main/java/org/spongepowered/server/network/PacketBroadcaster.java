@@ -0,0 +1,175 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.EncoderException;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.EnumConnectionState;
+import net.minecraft.network.EnumPacketDirection;
+import net.minecraft.network.NetworkManager;
+import net.minecraft.network.Packet;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.network.play.server.S02PacketChat;
+import net.minecraft.server.MinecraftServer;
+import org.spongepowered.server.interfaces.IMixinNetworkManager;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Sends the same packet to many players while serializing and compressing
+ * it only once.
+ *
+ * <p>The encoded packet is written directly to the pipeline behind the
+ * packet encoder (or the compression encoder if the connection uses
+ * compression), so only framing and encryption are done per connection.
+ * Connections with an unexpected pipeline get the packet the usual way.</p>
+ */
+public final class PacketBroadcaster {
+
+    private PacketBroadcaster() {
+    }
+
+    /**
+     * Sends the packet to all given players.
+     *
+     * @param packet The packet
+     * @param players The players
+     */
+    public static void sendToAll(Packet packet, List<? extends EntityPlayer> players) {
+        if (players.isEmpty()) {
+            return;
+        }
+        if (players.size() == 1) {
+            send((EntityPlayerMP) players.get(0), packet);
+            return;
+        }
+
+        ByteBuf encoded = null;
+        ByteBuf compressed = null;
+        try {
+            for (EntityPlayer player : players) {
+                final EntityPlayerMP playerMP = (EntityPlayerMP) player;
+                if (!canReceive(playerMP, packet)) {
+                    continue;
+                }
+
+                final NetworkManager manager = playerMP.playerNetServerHandler.getNetworkManager();
+                final Channel channel = ((IMixinNetworkManager) manager).getChannel();
+                if (channel == null || !channel.isOpen()) {
+                    continue;
+                }
+
+                ChannelHandlerContext context = channel.pipeline().context("compress");
+                if (context != null) {
+                    if (compressed == null) {
+                        if (encoded == null) {
+                            encoded = encode(packet);
+                        }
+                        compressed = compress(encoded);
+                    }
+                    if (context.handler() instanceof AsyncCompressionEncoder) {
+                        // Pass it through the encoder so it stays in order with the packets being compressed
+                        ((IMixinNetworkManager) manager).writeEncoded(channel.pipeline().context("encoder"),
+                                new PreCompressedPacket(compressed.retain().duplicate()));
+                    } else {
+                        ((IMixinNetworkManager) manager).writeEncoded(context, compressed.retain().duplicate());
+                    }
+                    continue;
+                }
+
+                context = channel.pipeline().context("encoder");
+                if (context != null) {
+                    if (encoded == null) {
+                        encoded = encode(packet);
+                    }
+                    ((IMixinNetworkManager) manager).writeEncoded(context, encoded.retain().duplicate());
+                } else {
+                    send(playerMP, packet);
+                }
+            }
+        } finally {
+            if (encoded != null) {
+                encoded.release();
+            }
+            if (compressed != null) {
+                compressed.release();
+            }
+        }
+    }
+
+    private static void send(EntityPlayerMP player, Packet packet) {
+        player.playerNetServerHandler.sendPacket(packet);
+    }
+
+    /**
+     * Mirrors the chat visibility check of
+     * {@link net.minecraft.network.NetHandlerPlayServer#sendPacket(Packet)},
+     * which is skipped when writing to the pipeline directly.
+     */
+    private static boolean canReceive(EntityPlayerMP player, Packet packet) {
+        if (packet instanceof S02PacketChat) {
+            final EntityPlayer.EnumChatVisibility visibility = player.getChatVisibility();
+            return visibility != EntityPlayer.EnumChatVisibility.HIDDEN
+                    && (visibility != EntityPlayer.EnumChatVisibility.SYSTEM || ((S02PacketChat) packet).isChat());
+        }
+        return true;
+    }
+
+    // Mirrors MessageSerializer
+    private static ByteBuf encode(Packet packet) {
+        final Integer id = EnumConnectionState.PLAY.getPacketId(EnumPacketDirection.CLIENTBOUND, packet);
+        if (id == null) {
+            throw new EncoderException("Can't serialize unregistered packet " + packet.getClass().getName());
+        }
+
+        final PacketBuffer buf = new PacketBuffer(PooledByteBufAllocator.DEFAULT.buffer());
+        try {
+            buf.writeVarIntToBuffer(id);
+            packet.writePacketData(buf);
+        } catch (IOException | RuntimeException e) {
+            buf.release();
+            throw new EncoderException(e);
+        }
+        return buf;
+    }
+
+    private static ByteBuf compress(ByteBuf encoded) {
+        final ByteBuf buf = PooledByteBufAllocator.DEFAULT.buffer();
+        try {
+            PacketCompression.compress(encoded, buf, MinecraftServer.getServer().getNetworkCompressionTreshold());
+        } catch (RuntimeException e) {
+            buf.release();
+            throw e;
+        }
+        return buf;
+    }
+
+}
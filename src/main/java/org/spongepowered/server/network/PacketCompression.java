@@ -0,0 +1,76 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.network;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.PacketBuffer;
+
+import java.util.zip.Deflater;
+
+/**
+ * Compresses encoded packets like
+ * {@link net.minecraft.network.NettyCompressionEncoder}, but can be used
+ * from any thread.
+ */
+public final class PacketCompression {
+
+    private static final ThreadLocal<Deflater> deflater = ThreadLocal.withInitial(Deflater::new);
+    private static final ThreadLocal<byte[]> buffer = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    private PacketCompression() {
+    }
+
+    /**
+     * Writes the compressed form of the readable bytes of the input to the
+     * output. The reader index of the input is not modified.
+     *
+     * @param in The encoded packet
+     * @param out The buffer to write to
+     * @param threshold The size from which packets are compressed
+     */
+    public static void compress(ByteBuf in, ByteBuf out, int threshold) {
+        final PacketBuffer buf = new PacketBuffer(out);
+        final int length = in.readableBytes();
+        if (length < threshold) {
+            buf.writeVarIntToBuffer(0);
+            buf.writeBytes(in, in.readerIndex(), length);
+            return;
+        }
+
+        final byte[] input = new byte[length];
+        in.getBytes(in.readerIndex(), input);
+        buf.writeVarIntToBuffer(length);
+
+        final Deflater deflater = PacketCompression.deflater.get();
+        final byte[] output = buffer.get();
+        deflater.setInput(input, 0, length);
+        deflater.finish();
+        while (!deflater.finished()) {
+            buf.writeBytes(output, 0, deflater.deflate(output));
+        }
+        deflater.reset();
+    }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.network;
+
+import net.minecraft.network.Packet;
+import net.minecraft.network.play.client.C02PacketUseEntity;
+import net.minecraft.network.play.client.C07PacketPlayerDigging;
+import net.minecraft.network.play.client.C08PacketPlayerBlockPlacement;
+import net.minecraft.network.play.client.C0APacketAnimation;
+import org.spongepowered.server.config.VanillaConfig;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+/**
+ * Limits the rate of expensive packets a single player can have processed,
+ * using a token bucket per packet type. Used on the main thread only.
+ */
+public final class PacketRateLimiter {
+
+    private static final String CATEGORY = "packet-rate-limits";
+
+    @Nullable private static Settings settings;
+
+    private static synchronized Settings getSettings() {
+        if (settings == null) {
+            settings = new Settings(VanillaConfig.getInstance());
+        }
+        return settings;
+    }
+
+    private final Settings config;
+    private final double[] tokens = new double[Type.values().length];
+    private final long[] lastRefill = new long[Type.values().length];
+
+    private long limitedPackets;
+    @Nullable private Type lastLimitedType;
+
+    public PacketRateLimiter() {
+        this(getSettings());
+    }
+
+    PacketRateLimiter(Settings config) {
+        this.config = config;
+        for (Type type : Type.values()) {
+            this.tokens[type.ordinal()] = this.config.burst[type.ordinal()];
+        }
+    }
+
+    /**
+     * Returns whether an over-budget packet should stay queued for a later
+     * tick instead of being dropped.
+     *
+     * @return True if limited packets are deferred
+     */
+    public boolean isDeferring() {
+        return this.config.defer;
+    }
+
+    /**
+     * Takes a token for the packet, if its type is limited.
+     *
+     * @param packet The packet
+     * @param now The current time, in nanoseconds
+     * @return False if the packet exceeds the budget of its type
+     */
+    public boolean tryAcquire(Packet packet, long now) {
+        if (!this.config.enabled) {
+            return true;
+        }
+
+        final Type type = Type.of(packet);
+        if (type == null) {
+            return true;
+        }
+
+        final int i = type.ordinal();
+        final double rate = this.config.rate[i];
+        if (this.lastRefill[i] != 0) {
+            this.tokens[i] = Math.min(this.config.burst[i], this.tokens[i] + (now - this.lastRefill[i]) * rate / 1000000000.0D);
+        }
+        this.lastRefill[i] = now;
+
+        if (this.tokens[i] >= 1.0D) {
+            this.tokens[i] -= 1.0D;
+            return true;
+        }
+
+        this.limitedPackets++;
+        this.lastLimitedType = type;
+        return false;
+    }
+
+    public long getLimitedPackets() {
+        return this.limitedPackets;
+    }
+
+    @Nullable
+    public String getLastLimitedType() {
+        return this.lastLimitedType != null ? this.lastLimitedType.key : null;
+    }
+
+    private enum Type {
+        BLOCK_PLACEMENT("block-placement", 20, 40),
+        DIGGING("digging", 40, 80),
+        USE_ENTITY("use-entity", 20, 40),
+        ANIMATION("animation", 40, 80);
+
+        final String key;
+        final int defaultRate;
+        final int defaultBurst;
+
+        Type(String key, int defaultRate, int defaultBurst) {
+            this.key = key;
+            this.defaultRate = defaultRate;
+            this.defaultBurst = defaultBurst;
+        }
+
+        @Nullable
+        static Type of(Packet packet) {
+            if (packet instanceof C08PacketPlayerBlockPlacement) {
+                return BLOCK_PLACEMENT;
+            } else if (packet instanceof C07PacketPlayerDigging) {
+                return DIGGING;
+            } else if (packet instanceof C02PacketUseEntity) {
+                return USE_ENTITY;
+            } else if (packet instanceof C0APacketAnimation) {
+                return ANIMATION;
+            }
+            return null;
+        }
+    }
+
+    static final class Settings {
+
+        final boolean enabled;
+        final boolean defer;
+        final double[] rate = new double[Type.values().length];
+        final double[] burst = new double[Type.values().length];
+
+        Settings(boolean enabled, boolean defer, int rate, int burst) {
+            this.enabled = enabled;
+            this.defer = defer;
+            Arrays.fill(this.rate, rate);
+            Arrays.fill(this.burst, burst);
+        }
+
+        Settings(VanillaConfig config) {
+            this.enabled = config.getBoolean(null, CATEGORY, "enabled", true,
+                    "If enabled, the number of expensive packets processed per player is limited");
+            this.defer = config.getBoolean(null, CATEGORY, "defer", true,
+                    "If enabled, packets over the limit are processed later, otherwise they are dropped and the client is resynced");
+            for (Type type : Type.values()) {
+                this.rate[type.ordinal()] = Math.max(1, config.getInt(null, CATEGORY, type.key + "-rate", type.defaultRate,
+                        "The number of " + type.key + " packets a player can send per second"));
+                this.burst[type.ordinal()] = Math.max(1, config.getInt(null, CATEGORY, type.key + "-burst", type.defaultBurst,
+                        "The number of " + type.key + " packets a player can send at once"));
+            }
+        }
+    }
+
+}
@@ -24,15 +24,26 @@
  */
 package org.spongepowered.server.network;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.NetworkManager;
+import net.minecraft.network.PacketBuffer;
+import net.minecraft.network.play.server.S3FPacketCustomPayload;
+import net.minecraft.server.MinecraftServer;
 import org.spongepowered.api.network.ChannelBinding;
 import org.spongepowered.api.network.ChannelRegistrar;
+import org.spongepowered.api.network.RemoteConnection;
 import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.SpongeImpl;
 
 public abstract class VanillaChannelBinding implements ChannelBinding {
 
     private final ChannelRegistrar registrar;
     private final String name;
     private final PluginContainer owner;
+    private final ChannelMetrics metrics = new ChannelMetrics();
+    private boolean warnedSendToServer;
 
     protected VanillaChannelBinding(ChannelRegistrar registrar, String name, PluginContainer owner) {
         this.registrar = registrar;
@@ -55,4 +66,69 @@ public final PluginContainer getOwner() {
         return this.owner;
     }
 
+    public final ChannelMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Handles a custom payload received on this channel. This is called on
+     * the network thread and the payload is released afterwards.
+     *
+     * @param connection The connection that sent the payload
+     * @param payload The payload
+     */
+    public abstract void handlePayload(RemoteConnection connection, ByteBuf payload);
+
+    /**
+     * Called by the send to server methods, which have nothing to send to on
+     * the server. The payload is discarded and a warning is logged once per
+     * channel.
+     */
+    final void discardSendToServer() {
+        if (!this.warnedSendToServer) {
+            this.warnedSendToServer = true;
+            SpongeImpl.getLogger().warn("Plugin {} tried to send a payload to the server on channel {}, payloads can only be sent "
+                    + "to clients on the server", this.owner.getId(), this.name);
+        }
+    }
+
+    static ByteBuf allocate() {
+        // Not pooled, so payloads don't have to be released. A connection that closes while a payload
+        // is sent keeps the packet in its queue, which would leak a pooled buffer
+        return Unpooled.buffer();
+    }
+
+    /**
+     * Sends a payload to a player.
+     *
+     * @param player The player
+     * @param payload The payload
+     * @param messages The number of messages in the payload
+     */
+    final void sendPayload(EntityPlayerMP player, ByteBuf payload, int messages) {
+        final NetworkManager manager = player.playerNetServerHandler.getNetworkManager();
+        if (!manager.isChannelOpen()) {
+            // Would be queued forever
+            return;
+        }
+
+        this.metrics.recordOut(messages, payload.readableBytes());
+        // Without listeners, so the packet is flushed with the others at the end of the tick
+        manager.sendPacket(new S3FPacketCustomPayload(this.name, new PacketBuffer(payload)));
+    }
+
+    /**
+     * Sends a payload to all players. The payload is encoded only once and
+     * shared by all connections.
+     *
+     * @param payload The payload
+     * @param messages The number of messages in the payload
+     */
+    final void sendPayloadToAll(ByteBuf payload, int messages) {
+        for (Object player : MinecraftServer.getServer().getConfigurationManager().playerEntityList) {
+            // Each connection reads from its own view of the shared buffer
+            sendPayload((EntityPlayerMP) player, payload.duplicate(), messages);
+        }
+    }
+
 }
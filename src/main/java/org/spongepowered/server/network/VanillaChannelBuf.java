@@ -0,0 +1,545 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.EncoderException;
+import net.minecraft.network.PacketBuffer;
+import org.spongepowered.api.data.DataView;
+import org.spongepowered.api.network.ChannelBuf;
+import org.spongepowered.common.data.persistence.NbtTranslator;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * A {@link ChannelBuf} backed directly by a Netty {@link ByteBuf}. The buffer
+ * is not copied, so it is only valid while the wrapped buffer is.
+ */
+public final class VanillaChannelBuf implements ChannelBuf {
+
+    private static final int MAX_STRING_LENGTH = Short.MAX_VALUE;
+
+    private final PacketBuffer buf;
+
+    public VanillaChannelBuf(ByteBuf buf) {
+        this.buf = buf instanceof PacketBuffer ? (PacketBuffer) buf : new PacketBuffer(buf);
+    }
+
+    public ByteBuf getHandle() {
+        return this.buf;
+    }
+
+    private <T> T getAt(int index, Supplier<T> reader) {
+        final int readerIndex = this.buf.readerIndex();
+        this.buf.readerIndex(index);
+        try {
+            return reader.get();
+        } finally {
+            this.buf.readerIndex(readerIndex);
+        }
+    }
+
+    private ChannelBuf setAt(int index, Runnable writer) {
+        final int writerIndex = this.buf.writerIndex();
+        this.buf.writerIndex(index);
+        try {
+            writer.run();
+        } finally {
+            this.buf.writerIndex(Math.max(writerIndex, this.buf.writerIndex()));
+        }
+        return this;
+    }
+
+    @Override
+    public int getCapacity() {
+        return this.buf.capacity();
+    }
+
+    @Override
+    public int available() {
+        return this.buf.readableBytes();
+    }
+
+    @Override
+    public ChannelBuf order(ByteOrder order) {
+        return order == this.buf.order() ? this : new VanillaChannelBuf(this.buf.order(order));
+    }
+
+    @Override
+    public ByteOrder getByteOrder() {
+        return this.buf.order();
+    }
+
+    @Override
+    public int readerIndex() {
+        return this.buf.readerIndex();
+    }
+
+    @Override
+    public ChannelBuf setReadIndex(int index) {
+        this.buf.readerIndex(index);
+        return this;
+    }
+
+    @Override
+    public int writerIndex() {
+        return this.buf.writerIndex();
+    }
+
+    @Override
+    public ChannelBuf setWriteIndex(int index) {
+        this.buf.writerIndex(index);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setIndex(int readIndex, int writeIndex) {
+        this.buf.setIndex(readIndex, writeIndex);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf clear() {
+        this.buf.clear();
+        return this;
+    }
+
+    @Override
+    public ChannelBuf markRead() {
+        this.buf.markReaderIndex();
+        return this;
+    }
+
+    @Override
+    public ChannelBuf markWrite() {
+        this.buf.markWriterIndex();
+        return this;
+    }
+
+    @Override
+    public ChannelBuf resetRead() {
+        this.buf.resetReaderIndex();
+        return this;
+    }
+
+    @Override
+    public ChannelBuf resetWrite() {
+        this.buf.resetWriterIndex();
+        return this;
+    }
+
+    @Override
+    public ChannelBuf slice() {
+        return new VanillaChannelBuf(this.buf.slice());
+    }
+
+    @Override
+    public ChannelBuf slice(int index, int length) {
+        return new VanillaChannelBuf(this.buf.slice(index, length));
+    }
+
+    @Override
+    public boolean hasArray() {
+        return this.buf.hasArray();
+    }
+
+    @Override
+    public byte[] array() {
+        return this.buf.array();
+    }
+
+    @Override
+    public ChannelBuf writeBoolean(boolean data) {
+        this.buf.writeBoolean(data);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setBoolean(int index, boolean data) {
+        this.buf.setBoolean(index, data);
+        return this;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return this.buf.readBoolean();
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return this.buf.getBoolean(index);
+    }
+
+    @Override
+    public ChannelBuf writeByte(byte data) {
+        this.buf.writeByte(data);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setByte(int index, byte data) {
+        this.buf.setByte(index, data);
+        return this;
+    }
+
+    @Override
+    public byte readByte() {
+        return this.buf.readByte();
+    }
+
+    @Override
+    public byte getByte(int index) {
+        return this.buf.getByte(index);
+    }
+
+    @Override
+    public ChannelBuf writeByteArray(byte[] data) {
+        this.buf.writeByteArray(data);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf writeByteArray(byte[] data, int start, int length) {
+        this.buf.writeVarIntToBuffer(length);
+        this.buf.writeBytes(data, start, length);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setByteArray(int index, byte[] data) {
+        return setAt(index, () -> writeByteArray(data));
+    }
+
+    @Override
+    public ChannelBuf setByteArray(int index, byte[] data, int start, int length) {
+        return setAt(index, () -> writeByteArray(data, start, length));
+    }
+
+    @Override
+    public byte[] readByteArray() {
+        return this.buf.readByteArray();
+    }
+
+    @Override
+    public byte[] readByteArray(int index) {
+        return getAt(index, this.buf::readByteArray);
+    }
+
+    @Override
+    public ChannelBuf writeBytes(byte[] data) {
+        this.buf.writeBytes(data);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf writeBytes(byte[] data, int start, int length) {
+        this.buf.writeBytes(data, start, length);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setBytes(int index, byte[] data) {
+        this.buf.setBytes(index, data);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setBytes(int index, byte[] data, int start, int length) {
+        this.buf.setBytes(index, data, start, length);
+        return this;
+    }
+
+    @Override
+    public byte[] readBytes(int length) {
+        final byte[] data = new byte[length];
+        this.buf.readBytes(data);
+        return data;
+    }
+
+    @Override
+    public byte[] readBytes(int index, int length) {
+        final byte[] data = new byte[length];
+        this.buf.getBytes(index, data);
+        return data;
+    }
+
+    @Override
+    public ChannelBuf writeShort(short data) {
+        this.buf.writeShort(data);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setShort(int index, short data) {
+        this.buf.setShort(index, data);
+        return this;
+    }
+
+    @Override
+    public short readShort() {
+        return this.buf.readShort();
+    }
+
+    @Override
+    public short getShort(int index) {
+        return this.buf.getShort(index);
+    }
+
+    @Override
+    public ChannelBuf writeChar(char data) {
+        this.buf.writeChar(data);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setChar(int index, char data) {
+        this.buf.setChar(index, data);
+        return this;
+    }
+
+    @Override
+    public char readChar() {
+        return this.buf.readChar();
+    }
+
+    @Override
+    public char getChar(int index) {
+        return this.buf.getChar(index);
+    }
+
+    @Override
+    public ChannelBuf writeInteger(int data) {
+        this.buf.writeInt(data);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setInteger(int index, int data) {
+        this.buf.setInt(index, data);
+        return this;
+    }
+
+    @Override
+    public int readInteger() {
+        return this.buf.readInt();
+    }
+
+    @Override
+    public int getInteger(int index) {
+        return this.buf.getInt(index);
+    }
+
+    @Override
+    public ChannelBuf writeLong(long data) {
+        this.buf.writeLong(data);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setLong(int index, long data) {
+        this.buf.setLong(index, data);
+        return this;
+    }
+
+    @Override
+    public long readLong() {
+        return this.buf.readLong();
+    }
+
+    @Override
+    public long getLong(int index) {
+        return this.buf.getLong(index);
+    }
+
+    @Override
+    public ChannelBuf writeFloat(float data) {
+        this.buf.writeFloat(data);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setFloat(int index, float data) {
+        this.buf.setFloat(index, data);
+        return this;
+    }
+
+    @Override
+    public float readFloat() {
+        return this.buf.readFloat();
+    }
+
+    @Override
+    public float getFloat(int index) {
+        return this.buf.getFloat(index);
+    }
+
+    @Override
+    public ChannelBuf writeDouble(double data) {
+        this.buf.writeDouble(data);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setDouble(int index, double data) {
+        this.buf.setDouble(index, data);
+        return this;
+    }
+
+    @Override
+    public double readDouble() {
+        return this.buf.readDouble();
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return this.buf.getDouble(index);
+    }
+
+    @Override
+    public ChannelBuf writeVarInt(int value) {
+        this.buf.writeVarIntToBuffer(value);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setVarInt(int index, int value) {
+        return setAt(index, () -> this.buf.writeVarIntToBuffer(value));
+    }
+
+    @Override
+    public int readVarInt() {
+        return this.buf.readVarIntFromBuffer();
+    }
+
+    @Override
+    public int getVarInt(int index) {
+        return getAt(index, this.buf::readVarIntFromBuffer);
+    }
+
+    @Override
+    public ChannelBuf writeString(String data) {
+        this.buf.writeString(data);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setString(int index, String data) {
+        return setAt(index, () -> this.buf.writeString(data));
+    }
+
+    @Override
+    public String readString() {
+        return this.buf.readStringFromBuffer(MAX_STRING_LENGTH);
+    }
+
+    @Override
+    public String getString(int index) {
+        return getAt(index, this::readString);
+    }
+
+    @Override
+    public ChannelBuf writeUTF(String data) {
+        try {
+            new DataOutputStream(new ByteBufOutputStream(this.buf)).writeUTF(data);
+        } catch (IOException e) {
+            throw new EncoderException(e);
+        }
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setUTF(int index, String data) {
+        return setAt(index, () -> writeUTF(data));
+    }
+
+    @Override
+    public String readUTF() {
+        try {
+            return new DataInputStream(new ByteBufInputStream(this.buf)).readUTF();
+        } catch (IOException e) {
+            throw new DecoderException(e);
+        }
+    }
+
+    @Override
+    public String getUTF(int index) {
+        return getAt(index, this::readUTF);
+    }
+
+    @Override
+    public ChannelBuf writeUniqueId(UUID data) {
+        this.buf.writeUuid(data);
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setUniqueId(int index, UUID data) {
+        return setAt(index, () -> this.buf.writeUuid(data));
+    }
+
+    @Override
+    public UUID readUniqueId() {
+        return this.buf.readUuid();
+    }
+
+    @Override
+    public UUID getUniqueId(int index) {
+        return getAt(index, this.buf::readUuid);
+    }
+
+    @Override
+    public ChannelBuf writeDataView(DataView data) {
+        this.buf.writeNBTTagCompoundToBuffer(NbtTranslator.getInstance().translateData(data));
+        return this;
+    }
+
+    @Override
+    public ChannelBuf setDataView(int index, DataView data) {
+        return setAt(index, () -> writeDataView(data));
+    }
+
+    @Override
+    public DataView readDataView() {
+        try {
+            return NbtTranslator.getInstance().translateFrom(this.buf.readNBTTagCompoundFromBuffer());
+        } catch (IOException e) {
+            throw new DecoderException(e);
+        }
+    }
+
+    @Override
+    public DataView getDataView(int index) {
+        return getAt(index, this::readDataView);
+    }
+
+}
@@ -24,6 +24,8 @@
  */
 package org.spongepowered.server.network;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -31,45 +33,107 @@
 import org.spongepowered.api.network.ChannelBinding;
 import org.spongepowered.api.network.ChannelRegistrar;
 import org.spongepowered.api.network.ChannelRegistrationException;
+import org.spongepowered.api.plugin.PluginContainer;
 import org.spongepowered.api.plugin.PluginManager;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
 
 @Singleton
 public class VanillaChannelRegistrar implements ChannelRegistrar {
 
-    // TODO
+    // Limit of the channel name in the custom payload packets
+    private static final int MAX_CHANNEL_LENGTH = 20;
 
     private final PluginManager pluginManager;
+    private final Map<String, VanillaChannelBinding> channels = new ConcurrentHashMap<>();
+    private final Map<PluginContainer, Set<VanillaChannelBinding>> channelsByOwner = new ConcurrentHashMap<>();
 
     @Inject
     public VanillaChannelRegistrar(PluginManager pluginManager) {
         this.pluginManager = pluginManager;
     }
 
+    private PluginContainer getPlugin(Object plugin) {
+        return this.pluginManager.fromInstance(checkNotNull(plugin, "plugin"))
+                .orElseThrow(() -> new IllegalArgumentException("Object " + plugin + " is not a plugin instance"));
+    }
+
+    private static boolean isValidName(String name) {
+        return name.length() <= MAX_CHANNEL_LENGTH && !name.startsWith("MC|") && !name.equals("REGISTER") && !name.equals("UNREGISTER");
+    }
+
+    private <T extends VanillaChannelBinding> T register(T binding) throws ChannelRegistrationException {
+        final String name = binding.getName();
+        if (!isValidName(name)) {
+            throw new ChannelRegistrationException("Invalid channel name: " + name);
+        }
+        if (this.channels.putIfAbsent(name, binding) != null) {
+            throw new ChannelRegistrationException("Channel " + name + " is already registered");
+        }
+        this.channelsByOwner.computeIfAbsent(binding.getOwner(), owner -> ConcurrentHashMap.newKeySet()).add(binding);
+        return binding;
+    }
 
     @Override
     public ChannelBinding.IndexedMessageChannel createChannel(Object plugin, String channel) throws ChannelRegistrationException {
-        return new VanillaIndexedMessageChannel(this, channel, pluginManager.fromInstance(plugin).get());
+        return register(new VanillaIndexedMessageChannel(this, checkNotNull(channel, "channel"), getPlugin(plugin)));
     }
 
     @Override
     public ChannelBinding.RawDataChannel createRawChannel(Object plugin, String channel) throws ChannelRegistrationException {
-        return new VanillaRawDataChannel(this, channel, pluginManager.fromInstance(plugin).get());
+        return register(new VanillaRawDataChannel(this, checkNotNull(channel, "channel"), getPlugin(plugin)));
     }
 
     @Override
     public void unbindChannel(ChannelBinding channel) {
+        if (this.channels.remove(channel.getName(), channel)) {
+            final Set<VanillaChannelBinding> channels = this.channelsByOwner.get(channel.getOwner());
+            if (channels != null) {
+                channels.remove(channel);
+            }
+        }
+    }
+
+    @Nullable
+    public VanillaChannelBinding getChannel(String name) {
+        return this.channels.get(name);
+    }
+
+    public Collection<VanillaChannelBinding> getChannels() {
+        return Collections.unmodifiableCollection(this.channels.values());
+    }
+
+    public Collection<VanillaChannelBinding> getChannels(PluginContainer owner) {
+        final Set<VanillaChannelBinding> channels = this.channelsByOwner.get(owner);
+        return channels != null ? Collections.unmodifiableSet(channels) : Collections.emptySet();
+    }
+
+    /**
+     * Sends the messages of indexed channels that were collected during the
+     * current tick.
+     */
+    public void flush() {
+        for (VanillaChannelBinding channel : this.channels.values()) {
+            if (channel instanceof VanillaIndexedMessageChannel) {
+                ((VanillaIndexedMessageChannel) channel).flush();
+            }
+        }
     }
 
     @Override
     public Set<String> getRegisteredChannels(Platform.Type side) {
-        return ImmutableSet.of();
+        return ImmutableSet.copyOf(this.channels.keySet());
     }
 
     @Override
     public boolean isChannelAvailable(String channelName) {
-        return false;
+        return isValidName(checkNotNull(channelName, "channelName")) && !this.channels.containsKey(channelName);
     }
 
 }
@@ -24,48 +24,311 @@
  */
 package org.spongepowered.server.network;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.server.MinecraftServer;
 import org.spongepowered.api.Platform;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.network.ChannelBinding;
 import org.spongepowered.api.network.ChannelRegistrar;
 import org.spongepowered.api.network.Message;
 import org.spongepowered.api.network.MessageHandler;
+import org.spongepowered.api.network.RemoteConnection;
 import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.server.interfaces.IMixinNetHandlerPlayServer;
+
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
 
+/**
+ * An indexed channel sending each message as its id followed by its data.
+ *
+ * <p>Clients that register the {@link #BATCH_CHANNEL} can receive batches:
+ * messages sent to such a player on the main thread are collected until the
+ * end of the tick. If there is more than one, they are sent as a single
+ * payload starting with {@link #BATCH_ID}, followed by the length (an int)
+ * and content of each message. Other clients, like the indexed channels of
+ * Forge, receive every message in its own payload. Messages sent to all
+ * players or from another thread are sent immediately, after the pending
+ * batches they would overtake.</p>
+ *
+ * <p>Clients may send batches in the same format.</p>
+ */
 public class VanillaIndexedMessageChannel extends VanillaChannelBinding implements ChannelBinding.IndexedMessageChannel {
 
+    public static final int BATCH_ID = 255;
+
+    /**
+     * The channel a client registers to announce it can decode batches.
+     */
+    public static final String BATCH_CHANNEL = "SV|Batch";
+
+    // Batches are sent early once they get this large
+    private static final int MAX_BATCH_SIZE = 1 << 16;
+
+    private final MessageType<?>[] typesById = new MessageType<?>[BATCH_ID];
+    private final Map<Class<?>, MessageType<?>> types = new IdentityHashMap<>();
+
+    private final Map<EntityPlayerMP, Batch> batches = new HashMap<>();
+
     public VanillaIndexedMessageChannel(ChannelRegistrar registrar, String name, PluginContainer owner) {
         super(registrar, name, owner);
     }
 
-    @Override
-    public void registerMessage(Class<? extends Message> messageClass, int messageId) {
+    private <M extends Message> MessageType<M> getOrCreateType(Class<M> messageClass, int messageId) {
+        checkNotNull(messageClass, "messageClass");
+        checkArgument(messageId >= 0 && messageId < BATCH_ID, "Message id must be between 0 and %s", BATCH_ID - 1);
 
+        @SuppressWarnings("unchecked")
+        MessageType<M> type = (MessageType<M>) this.typesById[messageId];
+        if (type == null) {
+            checkArgument(!this.types.containsKey(messageClass), "%s is already registered", messageClass);
+            type = new MessageType<>(messageId, messageClass);
+            this.typesById[messageId] = type;
+            this.types.put(messageClass, type);
+        } else {
+            checkArgument(type.messageClass == messageClass, "Message id %s is already used by %s", messageId, type.messageClass);
+        }
+        return type;
+    }
+
+    @Override
+    public synchronized void registerMessage(Class<? extends Message> messageClass, int messageId) {
+        getOrCreateType(messageClass, messageId);
     }
 
     @Override
     public <M extends Message> void registerMessage(Class<M> messageClass, int messageId, MessageHandler<M> handler) {
+        registerMessage(messageClass, messageId, Platform.Type.SERVER, handler);
+    }
 
+    @Override
+    public synchronized <M extends Message> void registerMessage(Class<M> messageClass, int messageId, Platform.Type side,
+            MessageHandler<M> handler) {
+        checkNotNull(handler, "handler");
+        final MessageType<M> type = getOrCreateType(messageClass, messageId);
+        // There is no client on the server
+        if (side != Platform.Type.CLIENT) {
+            checkState(type.handler == null, "Message id %s already has a handler", messageId);
+            type.handler = handler;
+        }
     }
 
     @Override
-    public <M extends Message> void registerMessage(Class<M> messageClass, int messageId, Platform.Type side, MessageHandler<M> handler) {
+    public void handlePayload(RemoteConnection connection, ByteBuf payload) {
+        final int bytes = payload.readableBytes();
+        if (bytes == 0) {
+            SpongeImpl.getLogger().debug("Received empty payload on channel {}", getName());
+            return;
+        }
+
+        final int id = payload.readUnsignedByte();
+        if (id != BATCH_ID) {
+            getMetrics().recordIn(1, bytes);
+            handleMessage(connection, id, payload);
+            return;
+        }
 
+        int messages = 0;
+        while (payload.isReadable()) {
+            final int length = payload.readableBytes() >= 4 ? payload.readInt() : -1;
+            if (length < 1 || length > payload.readableBytes()) {
+                SpongeImpl.getLogger().warn("Received malformed batch on channel {}, discarding the rest of it", getName());
+                break;
+            }
+
+            final ByteBuf message = payload.readSlice(length);
+            handleMessage(connection, message.readUnsignedByte(), message);
+            messages++;
+        }
+        getMetrics().recordIn(messages, bytes);
+    }
+
+    private void handleMessage(RemoteConnection connection, int id, ByteBuf data) {
+        // Batches can't be nested
+        final MessageType<?> type = id < BATCH_ID ? this.typesById[id] : null;
+        if (type == null || type.handler == null) {
+            SpongeImpl.getLogger().debug("Received unhandled message {} on channel {}", id, getName());
+            return;
+        }
+
+        final Message message;
+        final long start = System.nanoTime();
+        try {
+            message = type.constructor.newInstance();
+            message.readFrom(new VanillaChannelBuf(data));
+        } catch (Throwable e) {
+            SpongeImpl.getLogger().error("Could not decode message {} on channel {}", type.messageClass.getName(), getName(), e);
+            return;
+        } finally {
+            getMetrics().recordDecode(System.nanoTime() - start);
+        }
+
+        if (type.handler instanceof MainThreadHandler) {
+            MinecraftServer.getServer().addScheduledTask(() -> handle(type, message, connection));
+        } else {
+            handle(type, message, connection);
+        }
+    }
+
+    private void handle(MessageType<?> type, Message message, RemoteConnection connection) {
+        final long start = System.nanoTime();
+        type.handle(message, connection);
+        getMetrics().recordHandler(System.nanoTime() - start);
+    }
+
+    private MessageType<?> getType(Message message) {
+        final MessageType<?> type = this.types.get(checkNotNull(message, "message").getClass());
+        checkArgument(type != null, "%s is not registered on channel %s", message.getClass(), getName());
+        return type;
+    }
+
+    private static ByteBuf encode(MessageType<?> type, Message message, ByteBuf buf) {
+        buf.writeByte(type.id);
+        message.writeTo(new VanillaChannelBuf(buf));
+        return buf;
+    }
+
+    private static ByteBuf encode(MessageType<?> type, Message message) {
+        final ByteBuf buf = allocate();
+        try {
+            return encode(type, message, buf);
+        } catch (RuntimeException e) {
+            buf.release();
+            throw e;
+        }
     }
 
     @Override
     public void sendTo(Player player, Message message) {
+        final MessageType<?> type = getType(message);
+        synchronized (this.batches) {
+            if (!MinecraftServer.getServer().isCallingFromMinecraftThread()
+                    || !((IMixinNetHandlerPlayServer) ((EntityPlayerMP) player).playerNetServerHandler).supportsMessageBatches()) {
+                // Keep the order of the messages batched by the main thread
+                flush((EntityPlayerMP) player, this.batches.remove(player));
+                sendPayload((EntityPlayerMP) player, encode(type, message), 1);
+                return;
+            }
 
+            Batch batch = this.batches.get(player);
+            if (batch == null) {
+                batch = new Batch();
+                this.batches.put((EntityPlayerMP) player, batch);
+            }
+            batch.add(type, message);
+            if (batch.buf.readableBytes() >= MAX_BATCH_SIZE) {
+                this.batches.remove(player);
+                sendPayload((EntityPlayerMP) player, batch.finish(), batch.size);
+            }
+        }
     }
 
     @Override
     public void sendToServer(Message message) {
-
+        discardSendToServer();
     }
 
     @Override
     public void sendToAll(Message message) {
+        final ByteBuf payload = encode(getType(message), message);
+        synchronized (this.batches) {
+            // Keep the order of the messages batched before
+            flush();
+            sendPayloadToAll(payload, 1);
+        }
+    }
+
+    /**
+     * Sends the messages collected during this tick.
+     */
+    void flush() {
+        synchronized (this.batches) {
+            if (this.batches.isEmpty()) {
+                return;
+            }
+
+            for (Map.Entry<EntityPlayerMP, Batch> entry : this.batches.entrySet()) {
+                flush(entry.getKey(), entry.getValue());
+            }
+            this.batches.clear();
+        }
+    }
+
+    private void flush(EntityPlayerMP player, @Nullable Batch batch) {
+        if (batch == null) {
+            return;
+        }
+
+        try {
+            sendPayload(player, batch.finish(), batch.size);
+        } catch (RuntimeException e) {
+            SpongeImpl.getLogger().error("Could not send messages on channel {} to {}", getName(), player.getName(), e);
+        }
+    }
+
+    static final class MessageType<M extends Message> {
+
+        final int id;
+        final Class<M> messageClass;
+        final Constructor<M> constructor;
+        @Nullable MessageHandler<M> handler;
+
+        MessageType(int id, Class<M> messageClass) {
+            this.id = id;
+            this.messageClass = messageClass;
+            try {
+                this.constructor = messageClass.getDeclaredConstructor();
+                this.constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException(messageClass + " has no default constructor", e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void handle(Message message, RemoteConnection connection) {
+            try {
+                this.handler.handleMessage((M) message, connection, Platform.Type.SERVER);
+            } catch (Throwable e) {
+                SpongeImpl.getLogger().error("Could not pass message {} to its handler", this.messageClass.getName(), e);
+            }
+        }
+    }
+
+    static final class Batch {
+
+        final ByteBuf buf = allocate().writeByte(BATCH_ID);
+        int size;
+
+        void add(MessageType<?> type, Message message) {
+            final int start = this.buf.writerIndex();
+            this.buf.writeInt(0);
+            try {
+                encode(type, message, this.buf);
+            } catch (RuntimeException e) {
+                this.buf.writerIndex(start);
+                throw e;
+            }
+            this.buf.setInt(start, this.buf.writerIndex() - start - 4);
+            this.size++;
+        }
 
+        ByteBuf finish() {
+            if (this.size == 1) {
+                // Skip the batch id and the length of the single message
+                this.buf.skipBytes(5);
+            }
+            return this.buf;
+        }
     }
 
 }
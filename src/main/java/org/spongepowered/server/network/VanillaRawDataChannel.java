@@ -24,49 +24,89 @@
  */
 package org.spongepowered.server.network;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import io.netty.buffer.ByteBuf;
+import net.minecraft.entity.player.EntityPlayerMP;
 import org.spongepowered.api.Platform;
 import org.spongepowered.api.entity.living.player.Player;
 import org.spongepowered.api.network.ChannelBinding;
 import org.spongepowered.api.network.ChannelBuf;
 import org.spongepowered.api.network.ChannelRegistrar;
 import org.spongepowered.api.network.RawDataListener;
+import org.spongepowered.api.network.RemoteConnection;
 import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.SpongeImpl;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
 public class VanillaRawDataChannel extends VanillaChannelBinding implements ChannelBinding.RawDataChannel {
 
+    private final List<RawDataListener> listeners = new CopyOnWriteArrayList<>();
+
     public VanillaRawDataChannel(ChannelRegistrar registrar, String name, PluginContainer owner) {
         super(registrar, name, owner);
     }
 
     @Override
     public void addListener(RawDataListener listener) {
-
+        this.listeners.add(checkNotNull(listener, "listener"));
     }
 
     @Override
     public void addListener(Platform.Type side, RawDataListener listener) {
-
+        checkNotNull(listener, "listener");
+        // There is no client on the server
+        if (side != Platform.Type.CLIENT) {
+            this.listeners.add(listener);
+        }
     }
 
     @Override
     public void removeListener(RawDataListener listener) {
+        this.listeners.remove(listener);
+    }
 
+    @Override
+    public void handlePayload(RemoteConnection connection, ByteBuf payload) {
+        getMetrics().recordIn(1, payload.readableBytes());
+        final long start = System.nanoTime();
+        for (RawDataListener listener : this.listeners) {
+            try {
+                listener.handlePayload(new VanillaChannelBuf(payload.duplicate()), connection, Platform.Type.SERVER);
+            } catch (Throwable e) {
+                SpongeImpl.getLogger().error("Could not pass payload on channel {} to {}", getName(), getOwner(), e);
+            }
+        }
+        getMetrics().recordHandler(System.nanoTime() - start);
     }
 
     @Override
     public void sendTo(Player player, Consumer<ChannelBuf> payload) {
-
+        sendPayload((EntityPlayerMP) player, write(payload), 1);
     }
 
     @Override
     public void sendToServer(Consumer<ChannelBuf> payload) {
-
+        discardSendToServer();
     }
 
     @Override
     public void sendToAll(Consumer<ChannelBuf> payload) {
+        sendPayloadToAll(write(payload), 1);
+    }
 
+    private static ByteBuf write(Consumer<ChannelBuf> payload) {
+        final ByteBuf buf = allocate();
+        try {
+            payload.accept(new VanillaChannelBuf(buf));
+        } catch (RuntimeException e) {
+            buf.release();
+            throw e;
+        }
+        return buf;
     }
+
 }
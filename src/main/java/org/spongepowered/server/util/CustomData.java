@@ -0,0 +1,103 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.util;
+
+import net.minecraft.nbt.NBTTagCompound;
+
+import javax.annotation.Nullable;
+
+/**
+ * Holds the custom data compound of an entity or tile entity, stored in the
+ * {@code ForgeData} tag for compatibility with Forge.
+ *
+ * <p>Entities and tile entities only create this holder when their custom
+ * data is read or requested. The compound is only created when requested
+ * and is not written if it holds no data, e.g. if only an empty
+ * {@code SpongeData} tag was created.</p>
+ */
+public final class CustomData {
+
+    public static final String FORGE_DATA = "ForgeData";
+    public static final String SPONGE_DATA = "SpongeData";
+
+    @Nullable private NBTTagCompound data;
+    @Nullable private NBTTagCompound spongeData;
+
+    /**
+     * Returns whether the compound contains custom data, which should be
+     * read with {@link #readFromNBT(NBTTagCompound)}.
+     *
+     * @param compound The compound of the entity or tile entity
+     * @return True if there is custom data
+     */
+    public static boolean hasCustomData(NBTTagCompound compound) {
+        return compound.hasKey(FORGE_DATA, 10);
+    }
+
+    public void readFromNBT(NBTTagCompound compound) {
+        if (hasCustomData(compound)) {
+            this.data = compound.getCompoundTag(FORGE_DATA);
+            this.spongeData = null;
+        }
+    }
+
+    public void writeToNBT(NBTTagCompound compound) {
+        if (this.data != null && !isEmpty()) {
+            compound.setTag(FORGE_DATA, this.data);
+        }
+    }
+
+    public NBTTagCompound get() {
+        if (this.data == null) {
+            this.data = new NBTTagCompound();
+        }
+        // The SpongeData tag may be replaced through the returned compound, look it up again next time
+        this.spongeData = null;
+        return this.data;
+    }
+
+    public NBTTagCompound getSpongeData() {
+        if (this.spongeData == null) {
+            final NBTTagCompound data = get();
+            if (!data.hasKey(SPONGE_DATA, 10)) {
+                data.setTag(SPONGE_DATA, new NBTTagCompound());
+            }
+            this.spongeData = data.getCompoundTag(SPONGE_DATA);
+        }
+        return this.spongeData;
+    }
+
+    private boolean isEmpty() {
+        if (this.data.hasNoTags()) {
+            return true;
+        }
+        if (this.data.getKeySet().size() == 1) {
+            final NBTTagCompound spongeData = this.data.getCompoundTag(SPONGE_DATA);
+            return this.data.hasKey(SPONGE_DATA, 10) && spongeData.hasNoTags();
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.util;
+
+import com.flowpowered.math.vector.Vector3d;
+
+import java.util.Optional;
+
+/**
+ * Caches the interaction points of block placement packets. The client
+ * sends each coordinate in sixteenths of a block, so there are only 17
+ * possible values per axis.
+ */
+public final class HitOffsets {
+
+    private static final int STEPS = 16;
+    private static final int VALUES = STEPS + 1;
+
+    @SuppressWarnings("unchecked")
+    private static final Optional<Vector3d>[] cache = new Optional[VALUES * VALUES * VALUES];
+
+    private HitOffsets() {
+    }
+
+    /**
+     * Returns the interaction point within a block.
+     *
+     * @param x The x offset
+     * @param y The y offset
+     * @param z The z offset
+     * @return The interaction point
+     */
+    public static Optional<Vector3d> of(float x, float y, float z) {
+        final int ix = getStep(x);
+        final int iy = getStep(y);
+        final int iz = getStep(z);
+        if (ix < 0 || iy < 0 || iz < 0) {
+            return Optional.of(new Vector3d(x, y, z));
+        }
+
+        final int index = (ix * VALUES + iy) * VALUES + iz;
+        Optional<Vector3d> offset = cache[index];
+        if (offset == null) {
+            // Racing threads create equal values, which is harmless
+            offset = Optional.of(new Vector3d(x, y, z));
+            cache[index] = offset;
+        }
+        return offset;
+    }
+
+    private static int getStep(float value) {
+        final float scaled = value * STEPS;
+        final int step = (int) scaled;
+        return step == scaled && step >= 0 && step <= STEPS ? step : -1;
+    }
+
+}
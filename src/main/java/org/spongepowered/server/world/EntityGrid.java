@@ -0,0 +1,277 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.world;
+
+import com.google.common.base.Predicate;
+import net.minecraft.entity.Entity;
+import net.minecraft.util.AxisAlignedBB;
+import net.minecraft.util.LongHashMap;
+import net.minecraft.util.MathHelper;
+import org.spongepowered.server.interfaces.IMixinEntity;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * A uniform grid of all entities loaded in a world, used to answer bounding
+ * box and radius queries without walking the entity lists of every chunk.
+ *
+ * <p>Entities are placed in the cell containing their position, clamped to
+ * the height of the world. Like the chunk entity lists, the grid is updated
+ * when the world adds, removes or ticks an entity.</p>
+ */
+public final class EntityGrid {
+
+    private static final int CELL_SHIFT = 4;
+
+    // Like the chunk entity lists, entities outside of the world height are
+    // kept in the lowest or highest cell, so queries never look further
+    private static final int MAX_CELL_Y = 255 >> CELL_SHIFT;
+
+    // Same margin vanilla uses when collecting entities from the chunk sections
+    private static final double MAX_ENTITY_RADIUS = 2.0D;
+
+    private final LongHashMap cells = new LongHashMap();
+
+    public void add(Entity entity) {
+        if (((IMixinEntity) entity).getGridCell() != null) {
+            update(entity);
+            return;
+        }
+
+        final long key = getKey(entity);
+        Cell cell = (Cell) this.cells.getValueByKey(key);
+        if (cell == null) {
+            cell = new Cell(key);
+            this.cells.add(key, cell);
+        }
+        cell.add(entity);
+    }
+
+    public void remove(Entity entity) {
+        final Cell cell = ((IMixinEntity) entity).getGridCell();
+        if (cell != null) {
+            cell.remove(entity);
+            if (cell.size == 0) {
+                this.cells.remove(cell.key);
+            }
+        }
+    }
+
+    public void update(Entity entity) {
+        final Cell cell = ((IMixinEntity) entity).getGridCell();
+        if (cell == null || cell.key != getKey(entity)) {
+            remove(entity);
+            add(entity);
+        }
+    }
+
+    /**
+     * Visits all entities with a bounding box intersecting the given box. The
+     * visitor must not add or remove entities from the world.
+     *
+     * @param aabb The bounding box
+     * @param visitor The visitor
+     * @return False if the visitor stopped the query early
+     */
+    public boolean forEachIntersecting(AxisAlignedBB aabb, Visitor visitor) {
+        final int minX = MathHelper.floor_double(aabb.minX - MAX_ENTITY_RADIUS) >> CELL_SHIFT;
+        final int minY = getCellY(MathHelper.floor_double(aabb.minY - MAX_ENTITY_RADIUS));
+        final int minZ = MathHelper.floor_double(aabb.minZ - MAX_ENTITY_RADIUS) >> CELL_SHIFT;
+        final int maxX = MathHelper.floor_double(aabb.maxX + MAX_ENTITY_RADIUS) >> CELL_SHIFT;
+        final int maxY = getCellY(MathHelper.floor_double(aabb.maxY + MAX_ENTITY_RADIUS));
+        final int maxZ = MathHelper.floor_double(aabb.maxZ + MAX_ENTITY_RADIUS) >> CELL_SHIFT;
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int y = minY; y <= maxY; y++) {
+                    final Cell cell = (Cell) this.cells.getValueByKey(getKey(x, y, z));
+                    if (cell == null) {
+                        continue;
+                    }
+
+                    final Entity[] entities = cell.entities;
+                    for (int i = 0, size = cell.size; i < size; i++) {
+                        final Entity entity = entities[i];
+                        if (entity.getEntityBoundingBox().intersectsWith(aabb) && !visitor.visit(entity)) {
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Visits all entities positioned within the given distance of a point.
+     * The visitor must not add or remove entities from the world.
+     *
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @param z The z coordinate
+     * @param radius The maximum distance
+     * @param visitor The visitor
+     * @return False if the visitor stopped the query early
+     */
+    public boolean forEachInRadius(double x, double y, double z, double radius, Visitor visitor) {
+        final double radiusSquared = radius * radius;
+        final int minX = MathHelper.floor_double(x - radius) >> CELL_SHIFT;
+        final int minY = getCellY(MathHelper.floor_double(y - radius));
+        final int minZ = MathHelper.floor_double(z - radius) >> CELL_SHIFT;
+        final int maxX = MathHelper.floor_double(x + radius) >> CELL_SHIFT;
+        final int maxY = getCellY(MathHelper.floor_double(y + radius));
+        final int maxZ = MathHelper.floor_double(z + radius) >> CELL_SHIFT;
+
+        for (int cellX = minX; cellX <= maxX; cellX++) {
+            for (int cellZ = minZ; cellZ <= maxZ; cellZ++) {
+                for (int cellY = minY; cellY <= maxY; cellY++) {
+                    final Cell cell = (Cell) this.cells.getValueByKey(getKey(cellX, cellY, cellZ));
+                    if (cell == null) {
+                        continue;
+                    }
+
+                    final Entity[] entities = cell.entities;
+                    for (int i = 0, size = cell.size; i < size; i++) {
+                        final Entity entity = entities[i];
+                        if (entity.getDistanceSq(x, y, z) <= radiusSquared && !visitor.visit(entity)) {
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects entities the same way as
+     * {@link net.minecraft.world.World#getEntitiesInAABBexcluding}, including
+     * the parts of multi-part entities.
+     *
+     * @param except The entity to exclude, if any
+     * @param aabb The bounding box
+     * @param predicate The filter, if any
+     * @param result The list to add the entities to
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void collect(@Nullable Entity except, AxisAlignedBB aabb, @Nullable Predicate predicate, List result) {
+        forEachIntersecting(aabb, entity -> {
+            if (entity != except) {
+                if (predicate == null || predicate.apply(entity)) {
+                    result.add(entity);
+                }
+
+                // Parts are tested even if their parent doesn't match, as in vanilla
+                final Entity[] parts = entity.getParts();
+                if (parts != null) {
+                    for (Entity part : parts) {
+                        if (part != except && part.getEntityBoundingBox().intersectsWith(aabb) && (predicate == null || predicate.apply(part))) {
+                            result.add(part);
+                        }
+                    }
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Collects entities the same way as
+     * {@link net.minecraft.world.World#getEntitiesWithinAABB(Class, AxisAlignedBB, Predicate)}.
+     *
+     * @param type The type of the entities
+     * @param aabb The bounding box
+     * @param predicate The filter, if any
+     * @param result The list to add the entities to
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void collect(Class<?> type, AxisAlignedBB aabb, @Nullable Predicate predicate, List result) {
+        forEachIntersecting(aabb, entity -> {
+            if (type.isInstance(entity) && (predicate == null || predicate.apply(entity))) {
+                result.add(entity);
+            }
+            return true;
+        });
+    }
+
+    private static long getKey(Entity entity) {
+        return getKey(MathHelper.floor_double(entity.posX) >> CELL_SHIFT, getCellY(MathHelper.floor_double(entity.posY)),
+                MathHelper.floor_double(entity.posZ) >> CELL_SHIFT);
+    }
+
+    static int getCellY(int y) {
+        return MathHelper.clamp_int(y >> CELL_SHIFT, 0, MAX_CELL_Y);
+    }
+
+    static long getKey(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) y & 0xFFFL) << 26 | (long) z & 0x3FFFFFFL;
+    }
+
+    public interface Visitor {
+
+        /**
+         * Visits an entity found by a query.
+         *
+         * @param entity The entity
+         * @return False to stop the query
+         */
+        boolean visit(Entity entity);
+
+    }
+
+    public static final class Cell {
+
+        final long key;
+        Entity[] entities = new Entity[4];
+        int size;
+
+        Cell(long key) {
+            this.key = key;
+        }
+
+        void add(Entity entity) {
+            if (this.size == this.entities.length) {
+                this.entities = Arrays.copyOf(this.entities, this.size << 1);
+            }
+            ((IMixinEntity) entity).setGridCell(this, this.size);
+            this.entities[this.size++] = entity;
+        }
+
+        void remove(Entity entity) {
+            final int index = ((IMixinEntity) entity).getGridIndex();
+            final Entity last = this.entities[--this.size];
+            this.entities[index] = last;
+            this.entities[this.size] = null;
+            if (last != entity) {
+                ((IMixinEntity) last).setGridCell(this, index);
+            }
+            ((IMixinEntity) entity).setGridCell(null, -1);
+        }
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.world;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityTNTPrimed;
+import net.minecraft.entity.player.EntityPlayerMP;
+import net.minecraft.network.play.server.S27PacketExplosion;
+import net.minecraft.util.Vec3;
+import net.minecraft.world.Explosion;
+import net.minecraft.world.WorldServer;
+import org.spongepowered.api.event.SpongeEventFactory;
+import org.spongepowered.api.event.world.ExplosionEvent;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.server.VanillaHooks;
+import org.spongepowered.server.interfaces.IMixinExplosion;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Collects the explosions of primed TNT during an entity tick and detonates
+ * explosions with identical origin and strength only once.
+ *
+ * <p>A merged explosion is computed once and posts a single
+ * {@link ExplosionEvent.Pre} and {@link ExplosionEvent.Detonate}. Knockback
+ * is multiplied by the number of merged explosions and every affected entity
+ * is attacked once per merged explosion, so damage immunity applies as it
+ * would for separate explosions.</p>
+ *
+ * <p>Merging is only identical to separate explosions if the first one does
+ * not change any blocks, otherwise the following explosions would see a
+ * different world. In that case the remaining explosions of the batch are
+ * detonated separately. Queued explosions are detonated at the end of the
+ * entity tick instead of while the TNT is updated. Explosions outside of the
+ * entity tick, for example of TNT exploded by a plugin, are not queued and
+ * detonate immediately as in vanilla.</p>
+ */
+public final class ExplosionBatcher {
+
+    private final WorldServer world;
+    private final Map<Key, Batch> batches = new LinkedHashMap<>();
+    private boolean collecting;
+
+    public ExplosionBatcher(WorldServer world) {
+        this.world = world;
+    }
+
+    /**
+     * Starts queueing the explosions of primed TNT, called when the world
+     * starts ticking its entities.
+     */
+    public void start() {
+        this.collecting = true;
+    }
+
+    public boolean canBatch(@Nullable Entity exploder) {
+        return this.collecting && exploder instanceof EntityTNTPrimed;
+    }
+
+    public Explosion queue(Entity exploder, double x, double y, double z, float strength, boolean isFlaming, boolean isSmoking) {
+        final Key key = new Key(x, y, z, strength, isFlaming, isSmoking);
+        Batch batch = this.batches.get(key);
+        if (batch == null) {
+            batch = new Batch(key, new Explosion(this.world, exploder, x, y, z, strength, isFlaming, isSmoking), exploder);
+            this.batches.put(key, batch);
+        } else {
+            batch.exploders.add(exploder);
+        }
+        return batch.explosion;
+    }
+
+    /**
+     * Detonates the queued explosions and stops queueing until the next
+     * entity tick starts.
+     */
+    public void flush() {
+        this.collecting = false;
+        if (this.batches.isEmpty()) {
+            return;
+        }
+
+        try {
+            for (Batch batch : this.batches.values()) {
+                detonate(batch);
+            }
+        } finally {
+            this.batches.clear();
+        }
+    }
+
+    private void detonate(Batch batch) {
+        final Key key = batch.key;
+        final int size = batch.exploders.size();
+        final int merged = detonate(key, batch.explosion, size);
+
+        // The first explosion changed blocks, so the others can't be merged
+        for (int i = merged; i < size; i++) {
+            final Explosion explosion = new Explosion(this.world, batch.exploders.get(i), key.x, key.y, key.z, key.strength, key.isFlaming,
+                    key.isSmoking);
+            detonate(key, explosion, 1);
+        }
+    }
+
+    private int detonate(Key key, Explosion explosion, int size) {
+        ((IMixinExplosion) explosion).setBatchSize(size);
+
+        if (VanillaHooks.hasListeners(ExplosionEvent.Pre.class)) {
+            final ExplosionEvent.Pre event = SpongeEventFactory.createExplosionEventPre(((IMixinExplosion) explosion).createCause(),
+                    (org.spongepowered.api.world.explosion.Explosion) explosion, (org.spongepowered.api.world.World) this.world);
+            if (SpongeImpl.postEvent(event)) {
+                return size;
+            }
+        }
+
+        // Mirrors WorldServer.newExplosion
+        explosion.doExplosionA();
+        explosion.doExplosionB(false);
+
+        if (!key.isSmoking) {
+            explosion.clearAffectedBlockPositions();
+        }
+
+        // Reduced by the explosion if it changed blocks
+        final int merged = ((IMixinExplosion) explosion).getBatchSize();
+        for (Object obj : this.world.playerEntities) {
+            final EntityPlayerMP player = (EntityPlayerMP) obj;
+            if (player.getDistanceSq(key.x, key.y, key.z) < 4096.0D) {
+                Vec3 knockback = (Vec3) explosion.getPlayerKnockbackMap().get(player);
+                if (knockback != null && merged > 1) {
+                    knockback = new Vec3(knockback.xCoord * merged, knockback.yCoord * merged, knockback.zCoord * merged);
+                }
+                player.playerNetServerHandler.sendPacket(new S27PacketExplosion(key.x, key.y, key.z, key.strength,
+                        explosion.getAffectedBlockPositions(), knockback));
+            }
+        }
+        return merged;
+    }
+
+    private static final class Batch {
+
+        final Key key;
+        final Explosion explosion;
+        final List<Entity> exploders = new ArrayList<>(1);
+
+        Batch(Key key, Explosion explosion, Entity exploder) {
+            this.key = key;
+            this.explosion = explosion;
+            this.exploders.add(exploder);
+        }
+    }
+
+    private static final class Key {
+
+        final double x;
+        final double y;
+        final double z;
+        final float strength;
+        final boolean isFlaming;
+        final boolean isSmoking;
+
+        Key(double x, double y, double z, float strength, boolean isFlaming, boolean isSmoking) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.strength = strength;
+            this.isFlaming = isFlaming;
+            this.isSmoking = isSmoking;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return this.x == other.x && this.y == other.y && this.z == other.z && this.strength == other.strength
+                    && this.isFlaming == other.isFlaming && this.isSmoking == other.isSmoking;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Double.hashCode(this.x);
+            result = 31 * result + Double.hashCode(this.y);
+            result = 31 * result + Double.hashCode(this.z);
+            result = 31 * result + Float.hashCode(this.strength);
+            result = 31 * result + (this.isFlaming ? 1 : 0);
+            result = 31 * result + (this.isSmoking ? 1 : 0);
+            return result;
+        }
+    }
+
+}
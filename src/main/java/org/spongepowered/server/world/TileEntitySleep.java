@@ -0,0 +1,167 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.world;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.inventory.IInventory;
+import net.minecraft.server.gui.IUpdatePlayerListBox;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.AxisAlignedBB;
+import net.minecraft.util.BlockPos;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.MathHelper;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import org.spongepowered.server.config.VanillaConfig;
+import org.spongepowered.server.interfaces.IMixinTileEntity;
+
+/**
+ * Skips the tick of tile entities that are sleeping, see
+ * {@link IMixinTileEntity}.
+ */
+public final class TileEntitySleep {
+
+    private static final String CATEGORY = "tile-entity-sleep";
+
+    private final WorldServer world;
+    private final boolean enabled;
+    private final int hopperTicks;
+    private final int furnaceTicks;
+
+    private long skippedTicks;
+
+    public TileEntitySleep(WorldServer world) {
+        this.world = world;
+        final VanillaConfig config = VanillaConfig.getInstance();
+        final String name = world.getWorldInfo().getWorldName();
+        this.enabled = config.getBoolean(name, CATEGORY, "enabled", true,
+                "If enabled, idle tile entities stop ticking until something changes around them");
+        this.hopperTicks = config.getInt(name, CATEGORY, "hopper-ticks", 8,
+                "The number of ticks an idle hopper sleeps before checking for items again");
+        this.furnaceTicks = config.getInt(name, CATEGORY, "furnace-ticks", 200,
+                "The maximum number of ticks an idle furnace sleeps");
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public int getHopperTicks() {
+        return this.hopperTicks;
+    }
+
+    public int getFurnaceTicks() {
+        return this.furnaceTicks;
+    }
+
+    public long getSkippedTicks() {
+        return this.skippedTicks;
+    }
+
+    /**
+     * Wakes the tile entities next to an inventory that changed, so hoppers
+     * pulling from or pushing into it try again.
+     *
+     * @param pos The position of the inventory
+     */
+    public void wakeNeighbours(BlockPos pos) {
+        if (!this.enabled) {
+            return;
+        }
+
+        wakeNeighbours(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    private void wakeNeighbours(int x, int y, int z) {
+        for (EnumFacing facing : EnumFacing.values()) {
+            wake(x + facing.getFrontOffsetX(), y + facing.getFrontOffsetY(), z + facing.getFrontOffsetZ());
+        }
+    }
+
+    /**
+     * Wakes the hoppers an entity was dropped onto or moved next to. Items
+     * wake the hoppers below them, entities with an inventory the tile
+     * entities around them. Entity inventories also do this when they are
+     * marked dirty.
+     *
+     * @param entity The entity that was spawned or moved
+     */
+    public void wakeNear(Entity entity) {
+        if (!this.enabled) {
+            return;
+        }
+
+        if (entity instanceof EntityItem) {
+            // Hoppers pick up the items within the block above them
+            final AxisAlignedBB box = entity.getEntityBoundingBox();
+            final int minX = MathHelper.floor_double(box.minX);
+            final int maxX = MathHelper.floor_double(box.maxX);
+            final int minY = Math.max(MathHelper.floor_double(box.minY) - 1, 0);
+            final int maxY = Math.min(MathHelper.floor_double(box.maxY) - 1, 255);
+            final int minZ = MathHelper.floor_double(box.minZ);
+            final int maxZ = MathHelper.floor_double(box.maxZ);
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    for (int z = minZ; z <= maxZ; z++) {
+                        wake(x, y, z);
+                    }
+                }
+            }
+        } else if (entity instanceof IInventory) {
+            wakeNeighbours(MathHelper.floor_double(entity.posX), MathHelper.floor_double(entity.posY),
+                    MathHelper.floor_double(entity.posZ));
+        }
+    }
+
+    private void wake(int x, int y, int z) {
+        // Entities call this every time they move, so look at the block first
+        // and only create a position for blocks that can have a tile entity
+        if (y < 0 || y >= 256 || !this.world.getChunkProvider().chunkExists(x >> 4, z >> 4)) {
+            return;
+        }
+
+        final Chunk chunk = this.world.getChunkFromChunkCoords(x >> 4, z >> 4);
+        final ExtendedBlockStorage section = chunk.getBlockStorageArray()[y >> 4];
+        if (section == null || !section.getBlockByExtId(x & 15, y & 15, z & 15).hasTileEntity()) {
+            return;
+        }
+
+        final TileEntity tileEntity = this.world.getTileEntity(new BlockPos(x, y, z));
+        if (tileEntity != null) {
+            ((IMixinTileEntity) tileEntity).wake();
+        }
+    }
+
+    public void update(IUpdatePlayerListBox tileEntity) {
+        if (this.enabled && ((IMixinTileEntity) tileEntity).isSleeping()) {
+            this.skippedTicks++;
+            return;
+        }
+        tileEntity.update();
+    }
+
+}
@@ -33,9 +33,11 @@
 import org.spongepowered.api.event.SpongeEventFactory;
 import org.spongepowered.api.event.cause.Cause;
 import org.spongepowered.api.event.cause.NamedCause;
+import org.spongepowered.api.event.world.UnloadWorldEvent;
 import org.spongepowered.api.world.storage.WorldProperties;
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.world.DimensionManager;
+import org.spongepowered.server.VanillaHooks;
 
 import java.util.Hashtable;
 import java.util.List;
@@ -55,8 +57,11 @@ public static void unloadWorlds(Hashtable<Integer, long[]> worldTickTimes) {
                 e.printStackTrace();
             } finally {
                 if (w != null) {
-                    SpongeImpl.postEvent(SpongeEventFactory.createUnloadWorldEvent(Cause.of(NamedCause.source(MinecraftServer.getServer())),
-                            (org.spongepowered.api.world.World) w));
+                    if (VanillaHooks.hasListeners(UnloadWorldEvent.class)) {
+                        SpongeImpl.postEvent(SpongeEventFactory.createUnloadWorldEvent(Cause.of(NamedCause.source(MinecraftServer.getServer())),
+                                (org.spongepowered.api.world.World) w));
+                    }
+                    VanillaHooks.notifyWorldUnload(w);
                     w.flush();
                     setWorld(id, null);
                 }
@@ -0,0 +1,203 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.world.storage;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import org.spongepowered.common.SpongeImpl;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writes player data files on a separate thread.
+ *
+ * <p>The server thread only serializes the player to NBT. Compressing and
+ * writing the file happens on the writer thread. If a player is saved again
+ * before the previous data was written, only the latest data is written.</p>
+ */
+public final class PlayerDataWriter {
+
+    private static final long SHUTDOWN_TIMEOUT = 60;
+
+    @Nullable private static ExecutorService executor;
+    private static volatile boolean shutdown;
+
+    private static final AtomicLong writes = new AtomicLong();
+    private static final AtomicLong coalesced = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+    private static final AtomicLong totalWriteTime = new AtomicLong();
+    private static final AtomicLong maxWriteTime = new AtomicLong();
+
+    private final File playersDirectory;
+    private final Map<UUID, PendingWrite> pending = new ConcurrentHashMap<>();
+
+    public PlayerDataWriter(File playersDirectory) {
+        this.playersDirectory = playersDirectory;
+    }
+
+    /**
+     * Queues the player data for writing. The compound must not be modified
+     * afterwards.
+     *
+     * @param uniqueId The unique id of the player
+     * @param name The name of the player, for logging
+     * @param compound The player data
+     */
+    public void write(UUID uniqueId, String name, NBTTagCompound compound) {
+        checkState(!shutdown, "The player data writer was shut down");
+        if (this.pending.put(uniqueId, new PendingWrite(name, compound)) == null) {
+            getExecutor().execute(() -> flush(uniqueId));
+        } else {
+            coalesced.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the data of the player that was not written yet.
+     *
+     * @param uniqueId The unique id of the player
+     * @return The pending player data, or null if there is none
+     */
+    @Nullable
+    public NBTTagCompound getPending(UUID uniqueId) {
+        final PendingWrite write = this.pending.get(uniqueId);
+        return write != null ? write.compound : null;
+    }
+
+    private void flush(UUID uniqueId) {
+        PendingWrite write;
+        // Write again if the player was saved while we were writing
+        while ((write = this.pending.get(uniqueId)) != null) {
+            writeFile(uniqueId, write);
+            if (this.pending.remove(uniqueId, write)) {
+                break;
+            }
+        }
+    }
+
+    private void writeFile(UUID uniqueId, PendingWrite write) {
+        final long start = System.nanoTime();
+        try {
+            final Path file = new File(this.playersDirectory, uniqueId + ".dat").toPath();
+            final Path tmpFile = new File(this.playersDirectory, uniqueId + ".dat.tmp").toPath();
+
+            CompressedStreamTools.writeCompressed(write.compound, new FileOutputStream(tmpFile.toFile()));
+            try {
+                Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            writes.incrementAndGet();
+        } catch (IOException e) {
+            failed.incrementAndGet();
+            SpongeImpl.getLogger().warn("Failed to save player data for {}", write.name, e);
+        } finally {
+            final long time = System.nanoTime() - start;
+            totalWriteTime.addAndGet(time);
+            maxWriteTime.accumulateAndGet(time, Math::max);
+        }
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            // Daemon thread, shutdown() waits for the queued data
+            executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("Sponge Player Data Writer")
+                    .setDaemon(true).build());
+        }
+        return executor;
+    }
+
+    /**
+     * Waits until all queued player data was written and stops the writer
+     * thread. Player data can't be written afterwards.
+     */
+    public static synchronized void shutdown() {
+        shutdown = true;
+        if (executor == null || executor.isShutdown()) {
+            return;
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                SpongeImpl.getLogger().error("Player data was not written within {} seconds", SHUTDOWN_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static long getWrites() {
+        return writes.get();
+    }
+
+    public static long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public static long getFailed() {
+        return failed.get();
+    }
+
+    public static double getAverageWriteMillis() {
+        final long writes = PlayerDataWriter.writes.get() + failed.get();
+        return writes > 0 ? totalWriteTime.get() / (double) writes / 1000000.0D : 0.0D;
+    }
+
+    public static double getMaxWriteMillis() {
+        return maxWriteTime.get() / 1000000.0D;
+    }
+
+    private static final class PendingWrite {
+
+        final String name;
+        final NBTTagCompound compound;
+
+        PendingWrite(String name, NBTTagCompound compound) {
+            this.name = name;
+            this.compound = compound;
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.entity.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.util.BlockPos;
+import org.junit.Test;
+
+public class SpawnPointsTest {
+
+    @Test
+    public void testPutAndGet() {
+        final SpawnPoints spawns = new SpawnPoints();
+        assertTrue(spawns.isEmpty());
+        assertNull(spawns.get(-1));
+
+        spawns.put(-1, new BlockPos(10, 64, -20), true);
+        spawns.put(1, new BlockPos(-5, 70, 5), false);
+        assertFalse(spawns.isEmpty());
+        assertEquals(new BlockPos(10, 64, -20), spawns.get(-1));
+        assertTrue(spawns.isForced(-1));
+        assertEquals(new BlockPos(-5, 70, 5), spawns.get(1));
+        assertFalse(spawns.isForced(1));
+        assertNull(spawns.get(0));
+        assertFalse(spawns.isForced(0));
+    }
+
+    @Test
+    public void testPutReplacesExisting() {
+        final SpawnPoints spawns = new SpawnPoints();
+        spawns.put(-1, new BlockPos(1, 2, 3), true);
+        spawns.put(-1, new BlockPos(4, 5, 6), false);
+        assertEquals(new BlockPos(4, 5, 6), spawns.get(-1));
+        assertFalse(spawns.isForced(-1));
+
+        spawns.remove(-1);
+        assertTrue(spawns.isEmpty());
+    }
+
+    @Test
+    public void testGrowAndRemove() {
+        final SpawnPoints spawns = new SpawnPoints();
+        for (int dim = 2; dim < 12; dim++) {
+            spawns.put(dim, new BlockPos(dim, dim, -dim), dim % 2 == 0);
+        }
+
+        spawns.remove(2);
+        spawns.remove(7);
+        spawns.remove(100);
+        assertNull(spawns.get(2));
+        assertNull(spawns.get(7));
+        for (int dim = 3; dim < 12; dim++) {
+            if (dim != 7) {
+                assertEquals(new BlockPos(dim, dim, -dim), spawns.get(dim));
+                assertEquals(dim % 2 == 0, spawns.isForced(dim));
+            }
+        }
+    }
+
+    @Test
+    public void testNBTRoundTrip() {
+        final SpawnPoints spawns = new SpawnPoints();
+        spawns.put(-1, new BlockPos(-30000000, 0, 29999999), true);
+        spawns.put(1, new BlockPos(123, 255, -456), false);
+        spawns.put(7, new BlockPos(-1, -1, -1), false);
+
+        final NBTTagCompound compound = new NBTTagCompound();
+        spawns.writeToNBT(compound);
+
+        final SpawnPoints read = new SpawnPoints();
+        read.readFromNBT(compound);
+        assertEquals(new BlockPos(-30000000, 0, 29999999), read.get(-1));
+        assertTrue(read.isForced(-1));
+        assertEquals(new BlockPos(123, 255, -456), read.get(1));
+        assertFalse(read.isForced(1));
+        assertEquals(new BlockPos(-1, -1, -1), read.get(7));
+    }
+
+    @Test
+    public void testWriteEmpty() {
+        final NBTTagCompound compound = new NBTTagCompound();
+        new SpawnPoints().writeToNBT(compound);
+        assertTrue(compound.hasNoTags());
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import net.minecraft.network.NettyCompressionEncoder;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class PacketCompressionTest {
+
+    private static final int THRESHOLD = 256;
+
+    private static byte[] random(int length) {
+        final byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+
+    private static byte[] repeating(int length) {
+        final byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i % 7);
+        }
+        return data;
+    }
+
+    private static void assertMatchesVanilla(byte[] data) {
+        final EmbeddedChannel channel = new EmbeddedChannel(new NettyCompressionEncoder(THRESHOLD));
+        assertTrue(channel.writeOutbound(Unpooled.wrappedBuffer(data)));
+        final ByteBuf expected = (ByteBuf) channel.readOutbound();
+        channel.finish();
+
+        final ByteBuf in = Unpooled.wrappedBuffer(data);
+        final ByteBuf out = Unpooled.buffer();
+        PacketCompression.compress(in, out, THRESHOLD);
+
+        try {
+            assertEquals(ByteBufUtil.hexDump(expected), ByteBufUtil.hexDump(out));
+            assertEquals(0, in.readerIndex());
+        } finally {
+            expected.release();
+        }
+    }
+
+    @Test
+    public void testBelowThreshold() {
+        assertMatchesVanilla(random(1));
+        assertMatchesVanilla(random(THRESHOLD - 1));
+    }
+
+    @Test
+    public void testAtThreshold() {
+        assertMatchesVanilla(random(THRESHOLD));
+        assertMatchesVanilla(repeating(THRESHOLD));
+    }
+
+    @Test
+    public void testLarge() {
+        // Larger than the deflate buffer, so the output is written in several parts
+        assertMatchesVanilla(random(100000));
+        assertMatchesVanilla(repeating(100000));
+    }
+
+    @Test
+    public void testRepeatedUse() {
+        // The deflater of the thread is reset after each packet
+        for (int i = 0; i < 3; i++) {
+            assertMatchesVanilla(repeating(1000 + i));
+        }
+    }
+
+}
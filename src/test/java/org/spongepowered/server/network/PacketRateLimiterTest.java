@@ -0,0 +1,111 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.network;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import net.minecraft.network.Packet;
+import net.minecraft.network.play.client.C00PacketKeepAlive;
+import net.minecraft.network.play.client.C08PacketPlayerBlockPlacement;
+import net.minecraft.network.play.client.C0APacketAnimation;
+import org.junit.Test;
+
+public class PacketRateLimiterTest {
+
+    private static final long SECOND = 1000000000L;
+    // The limiter treats a time of 0 as never refilled
+    private static final long START = SECOND;
+
+    private static PacketRateLimiter create(int rate, int burst) {
+        return new PacketRateLimiter(new PacketRateLimiter.Settings(true, true, rate, burst));
+    }
+
+    @Test
+    public void testBurst() {
+        final PacketRateLimiter limiter = create(20, 3);
+        final Packet packet = new C0APacketAnimation();
+        assertTrue(limiter.tryAcquire(packet, START));
+        assertTrue(limiter.tryAcquire(packet, START));
+        assertTrue(limiter.tryAcquire(packet, START));
+        assertFalse(limiter.tryAcquire(packet, START));
+        assertEquals(1, limiter.getLimitedPackets());
+        assertEquals("animation", limiter.getLastLimitedType());
+    }
+
+    @Test
+    public void testRefill() {
+        final PacketRateLimiter limiter = create(20, 1);
+        final Packet packet = new C0APacketAnimation();
+        assertTrue(limiter.tryAcquire(packet, START));
+        // A token every 50 ms
+        assertFalse(limiter.tryAcquire(packet, START + SECOND / 40));
+        assertTrue(limiter.tryAcquire(packet, START + SECOND / 20));
+        assertFalse(limiter.tryAcquire(packet, START + SECOND / 20));
+    }
+
+    @Test
+    public void testRefillIsCappedAtBurst() {
+        final PacketRateLimiter limiter = create(20, 2);
+        final Packet packet = new C0APacketAnimation();
+        assertTrue(limiter.tryAcquire(packet, START));
+        final long later = START + 10 * SECOND;
+        assertTrue(limiter.tryAcquire(packet, later));
+        assertTrue(limiter.tryAcquire(packet, later));
+        assertFalse(limiter.tryAcquire(packet, later));
+    }
+
+    @Test
+    public void testTypesHaveSeparateBuckets() {
+        final PacketRateLimiter limiter = create(20, 1);
+        assertTrue(limiter.tryAcquire(new C0APacketAnimation(), START));
+        assertFalse(limiter.tryAcquire(new C0APacketAnimation(), START));
+        assertTrue(limiter.tryAcquire(new C08PacketPlayerBlockPlacement(), START));
+        assertFalse(limiter.tryAcquire(new C08PacketPlayerBlockPlacement(), START));
+        assertEquals("block-placement", limiter.getLastLimitedType());
+    }
+
+    @Test
+    public void testOtherPacketsAreNotLimited() {
+        final PacketRateLimiter limiter = create(1, 1);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(new C00PacketKeepAlive(), START));
+        }
+        assertEquals(0, limiter.getLimitedPackets());
+        assertNull(limiter.getLastLimitedType());
+    }
+
+    @Test
+    public void testDisabled() {
+        final PacketRateLimiter limiter = new PacketRateLimiter(new PacketRateLimiter.Settings(false, true, 1, 1));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(new C0APacketAnimation(), START));
+        }
+        assertEquals(0, limiter.getLimitedPackets());
+    }
+
+}
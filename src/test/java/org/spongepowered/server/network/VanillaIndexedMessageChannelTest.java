@@ -0,0 +1,120 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.network;
+
+import static org.junit.Assert.assertEquals;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Before;
+import org.junit.Test;
+import org.spongepowered.api.network.ChannelBuf;
+import org.spongepowered.api.network.Message;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class VanillaIndexedMessageChannelTest {
+
+    private static final int MESSAGE_ID = 3;
+
+    private VanillaIndexedMessageChannel channel;
+    private final List<Integer> received = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        this.channel = new VanillaIndexedMessageChannel(null, "Test", null);
+        this.channel.registerMessage(TestMessage.class, MESSAGE_ID, (message, connection, side) -> this.received.add(message.value));
+    }
+
+    private static ByteBuf batch(int... values) {
+        final VanillaIndexedMessageChannel.MessageType<TestMessage> type =
+                new VanillaIndexedMessageChannel.MessageType<>(MESSAGE_ID, TestMessage.class);
+        final VanillaIndexedMessageChannel.Batch batch = new VanillaIndexedMessageChannel.Batch();
+        for (int value : values) {
+            batch.add(type, new TestMessage(value));
+        }
+        return batch.finish();
+    }
+
+    @Test
+    public void testSingleMessage() {
+        this.channel.handlePayload(null, Unpooled.buffer().writeByte(MESSAGE_ID).writeInt(42));
+        assertEquals(Arrays.asList(42), this.received);
+        assertEquals(1, this.channel.getMetrics().getMessagesIn());
+    }
+
+    @Test
+    public void testBatchFraming() {
+        final ByteBuf payload = Unpooled.buffer().writeByte(VanillaIndexedMessageChannel.BATCH_ID)
+                .writeInt(5).writeByte(MESSAGE_ID).writeInt(1)
+                .writeInt(5).writeByte(MESSAGE_ID).writeInt(2);
+        this.channel.handlePayload(null, payload);
+        assertEquals(Arrays.asList(1, 2), this.received);
+        assertEquals(2, this.channel.getMetrics().getMessagesIn());
+    }
+
+    @Test
+    public void testBatchRoundTrip() {
+        final ByteBuf payload = batch(1, 2, 3);
+        assertEquals(VanillaIndexedMessageChannel.BATCH_ID, payload.getUnsignedByte(payload.readerIndex()));
+        this.channel.handlePayload(null, payload);
+        assertEquals(Arrays.asList(1, 2, 3), this.received);
+        assertEquals(3, this.channel.getMetrics().getMessagesIn());
+    }
+
+    @Test
+    public void testSingleMessageBatchIsSentPlain() {
+        final ByteBuf payload = batch(7);
+        assertEquals(5, payload.readableBytes());
+        assertEquals(MESSAGE_ID, payload.getUnsignedByte(payload.readerIndex()));
+        this.channel.handlePayload(null, payload);
+        assertEquals(Arrays.asList(7), this.received);
+    }
+
+    public static final class TestMessage implements Message {
+
+        int value;
+
+        public TestMessage() {
+        }
+
+        TestMessage(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public void readFrom(ChannelBuf buf) {
+            this.value = buf.readInteger();
+        }
+
+        @Override
+        public void writeTo(ChannelBuf buf) {
+            buf.writeInteger(this.value);
+        }
+    }
+
+}
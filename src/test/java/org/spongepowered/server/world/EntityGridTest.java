@@ -0,0 +1,86 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.server.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class EntityGridTest {
+
+    // The world border is at 30 million blocks
+    private static final int MAX_CELL = 30000000 >> 4;
+
+    @Test
+    public void testKeysAreUniqueAroundOrigin() {
+        final Set<Long> keys = new HashSet<>();
+        for (int x = -2; x <= 2; x++) {
+            for (int y = -2; y <= 17; y++) {
+                for (int z = -2; z <= 2; z++) {
+                    keys.add(EntityGrid.getKey(x, y, z));
+                }
+            }
+        }
+        assertEquals(5 * 20 * 5, keys.size());
+    }
+
+    @Test
+    public void testKeysAreUniqueAtWorldBorder() {
+        final Set<Long> keys = new HashSet<>();
+        for (int x : new int[] {-MAX_CELL - 1, -MAX_CELL, MAX_CELL - 1, MAX_CELL}) {
+            for (int y = 0; y <= 15; y++) {
+                for (int z : new int[] {-MAX_CELL - 1, -MAX_CELL, MAX_CELL - 1, MAX_CELL}) {
+                    keys.add(EntityGrid.getKey(x, y, z));
+                }
+            }
+        }
+        assertEquals(4 * 16 * 4, keys.size());
+    }
+
+    @Test
+    public void testNegativeCoordinatesDontOverlapOtherAxes() {
+        assertNotEquals(EntityGrid.getKey(-1, 0, 0), EntityGrid.getKey(0, -1, 0));
+        assertNotEquals(EntityGrid.getKey(0, -1, 0), EntityGrid.getKey(0, 0, -1));
+        assertNotEquals(EntityGrid.getKey(0, 0, -1), EntityGrid.getKey(-1, 0, 0));
+        assertNotEquals(EntityGrid.getKey(0, 0, -1), EntityGrid.getKey(0, 1, 0));
+    }
+
+    @Test
+    public void testCellYIsClampedToWorldHeight() {
+        assertEquals(0, EntityGrid.getCellY(-1000));
+        assertEquals(0, EntityGrid.getCellY(-1));
+        assertEquals(0, EntityGrid.getCellY(0));
+        assertEquals(0, EntityGrid.getCellY(15));
+        assertEquals(1, EntityGrid.getCellY(16));
+        assertEquals(15, EntityGrid.getCellY(255));
+        assertEquals(15, EntityGrid.getCellY(256));
+        assertEquals(15, EntityGrid.getCellY(1000));
+    }
+
+}